@@ -0,0 +1,46 @@
+package com.hotel.benchmark;
+
+import com.hotel.HotelBookingAuthApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Повний контекст застосунку для бенчмарків і навантажувального тесту:
+ * H2 у пам'яті, випадковий порт, без SQL-логу, журнал подій у target.
+ */
+public final class BenchmarkContext {
+    
+    private BenchmarkContext() {
+    }
+    
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(new Class<?>[0], properties);
+    }
+    
+    /**
+     * Контекст з додатковими класами конфігурації бенчмарка (наприклад, DatabaseLatency).
+     * Налаштування передаються як аргументи командного рядка, бо вони мають перекривати
+     * application.properties, а defaultProperties мають найнижчий пріоритет.
+     */
+    public static ConfigurableApplicationContext start(Class<?>[] sources, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.hotel=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--booking.events.dir=target/benchmark-events"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(HotelBookingAuthApplication.class)
+                .sources(sources)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+}
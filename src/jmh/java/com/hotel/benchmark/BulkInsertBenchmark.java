@@ -0,0 +1,235 @@
+package com.hotel.benchmark;
+
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.UserRepository;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Масова вставка номерів і бронювань в одній транзакції.
+ * ids=identity - відображення до переходу на послідовності: копії таблиць rooms і bookings з
+ * GenerationType.IDENTITY, id повертає кожен INSERT, тож Hibernate не групує вставки навіть з jdbcBatchSize=50.
+ * ids=pooled - поточні сутності: id з послідовності блоками, вставки групуються в JDBC-пакети.
+ * Кеш другого рівня вимкнено, щоб варіанти відрізнялися лише генерацією id.
+ * H2 у пам'яті не має мережевого обміну, тому виграш від пакетів помітний лише з dbLatencyMillis > 0
+ * (DatabaseLatency затримує кожне виконання запиту, як віддалена БД).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    
+    @Param({"identity", "pooled"})
+    private String ids;
+    
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+    
+    @Param({"1000"})
+    private int rows;
+    
+    @Param({"0", "1"})
+    private int dbLatencyMillis;
+    
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private Long hotelId;
+    private Long roomId;
+    private Long userId;
+    private long day;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(new Class<?>[]{DatabaseLatency.class},
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "benchmark.db-latency=" + dbLatencyMillis + "ms");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        
+        Hotel hotel = new Hotel();
+        hotel.setName("Bench");
+        hotel.setAddress("Main 1");
+        hotel.setCity("Kyiv");
+        hotel.setStars(4);
+        hotel = context.getBean(HotelRepository.class).save(hotel);
+        hotelId = hotel.getId();
+        roomId = context.getBean(RoomRepository.class).save(newRoom(hotel, "0")).getId();
+        
+        User user = new User();
+        user.setUsername("bench");
+        user.setPassword("-");
+        user.setEmail("bench@example.com");
+        user.setFullName("Bench");
+        user.setPhone("0");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public void insertRooms() {
+        inTransaction(entityManager -> {
+            Hotel hotel = entityManager.getReference(Hotel.class, hotelId);
+            for (int i = 0; i < rows; i++) {
+                Room room = newRoom(hotel, String.valueOf(i));
+                entityManager.persist(ids.equals("identity") ? IdentityRoom.of(room) : room);
+            }
+        });
+    }
+    
+    @Benchmark
+    public void insertBookings() {
+        inTransaction(entityManager -> {
+            Room room = entityManager.getReference(Room.class, roomId);
+            User user = entityManager.getReference(User.class, userId);
+            for (int i = 0; i < rows; i++) {
+                LocalDate checkIn = LocalDate.of(2030, 1, 1).plusDays(day++ * 2);
+                Booking booking = new Booking();
+                booking.setRoom(room);
+                booking.setUser(user);
+                booking.setCheckInDate(checkIn);
+                booking.setCheckOutDate(checkIn.plusDays(1));
+                booking.setTotalPrice(BigDecimal.TEN);
+                entityManager.persist(ids.equals("identity") ? IdentityBooking.of(booking) : booking);
+            }
+        });
+    }
+    
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            entityManager.getTransaction().begin();
+            work.accept(entityManager);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    private static Room newRoom(Hotel hotel, String number) {
+        Room room = new Room();
+        room.setRoomNumber(number);
+        room.setType(Room.RoomType.STANDARD);
+        room.setPricePerNight(BigDecimal.TEN);
+        room.setCapacity(2);
+        room.setHotel(hotel);
+        return room;
+    }
+    
+    /** Номер з id з IDENTITY-колонки (відображення до user-014); стовпці й індекси як у rooms. */
+    @Entity
+    @Table(name = "identity_rooms", indexes = {
+            @Index(name = "idx_identity_rooms_hotel_type_price", columnList = "hotel_id, type, price_per_night")
+    })
+    @Getter
+    @Setter
+    public static class IdentityRoom {
+        
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        
+        @Column(nullable = false)
+        private String roomNumber;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Room.RoomType type;
+        
+        @Column(nullable = false)
+        private BigDecimal pricePerNight;
+        
+        @Column(nullable = false)
+        private Integer capacity;
+        
+        @Column(length = 500)
+        private String description;
+        
+        @Column(nullable = false)
+        private Boolean available = true;
+        
+        @Version
+        private Long version;
+        
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "hotel_id", nullable = false)
+        private Hotel hotel;
+        
+        static IdentityRoom of(Room room) {
+            IdentityRoom copy = new IdentityRoom();
+            copy.setRoomNumber(room.getRoomNumber());
+            copy.setType(room.getType());
+            copy.setPricePerNight(room.getPricePerNight());
+            copy.setCapacity(room.getCapacity());
+            copy.setHotel(room.getHotel());
+            return copy;
+        }
+    }
+    
+    /** Бронювання з id з IDENTITY-колонки (відображення до user-014); стовпці й індекси як у bookings. */
+    @Entity
+    @Table(name = "identity_bookings", indexes = {
+            @Index(name = "idx_identity_bookings_room_status_dates", columnList = "room_id, status, check_in_date, check_out_date"),
+            @Index(name = "idx_identity_bookings_user", columnList = "user_id"),
+            @Index(name = "idx_identity_bookings_dates", columnList = "check_in_date, check_out_date")
+    })
+    @Getter
+    @Setter
+    public static class IdentityBooking {
+        
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        
+        @Column(nullable = false)
+        private LocalDate checkInDate;
+        
+        @Column(nullable = false)
+        private LocalDate checkOutDate;
+        
+        @Column(nullable = false)
+        private BigDecimal totalPrice;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Booking.BookingStatus status = Booking.BookingStatus.CONFIRMED;
+        
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "user_id", nullable = false)
+        private User user;
+        
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "room_id", nullable = false)
+        private Room room;
+        
+        static IdentityBooking of(Booking booking) {
+            IdentityBooking copy = new IdentityBooking();
+            copy.setCheckInDate(booking.getCheckInDate());
+            copy.setCheckOutDate(booking.getCheckOutDate());
+            copy.setTotalPrice(booking.getTotalPrice());
+            copy.setUser(booking.getUser());
+            copy.setRoom(booking.getRoom());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotel.benchmark;
+
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перевірка конфлікту при бронюванні з вимкненим індексом (запит до БД)
+ * для номера з 10, 1000 та 100000 бронювань; порівнюється з RoomAvailabilityIndexBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictQueryBenchmark {
+    
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+    
+    @Param({"10", "1000", "100000"})
+    private int bookings;
+    
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private Long roomId;
+    private LocalDate freeCheckIn;
+    private LocalDate takenCheckIn;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("booking.availability-index.enabled=false");
+        bookingRepository = context.getBean(BookingRepository.class);
+        
+        Hotel hotel = new Hotel();
+        hotel.setName("Bench");
+        hotel.setAddress("Main 1");
+        hotel.setCity("Kyiv");
+        hotel.setStars(4);
+        hotel = context.getBean(HotelRepository.class).save(hotel);
+        
+        Room room = new Room();
+        room.setRoomNumber("1");
+        room.setType(Room.RoomType.STANDARD);
+        room.setPricePerNight(BigDecimal.TEN);
+        room.setCapacity(2);
+        room.setHotel(hotel);
+        roomId = context.getBean(RoomRepository.class).save(room).getId();
+        
+        User user = new User();
+        user.setUsername("bench");
+        user.setPassword("-");
+        user.setEmail("bench@example.com");
+        user.setFullName("Bench");
+        user.setPhone("0");
+        Long userId = context.getBean(UserRepository.class).save(user).getId();
+        
+        // Бронювання по 2 дні з вільним днем між ними, вставка напряму через JDBC
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            LocalDate checkIn = START.plusDays(i * 3L);
+            rows.add(new Object[]{1_000_000L + i, Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(1)),
+                    BigDecimal.TEN, Booking.BookingStatus.CONFIRMED.name(), userId, roomId});
+            if (rows.size() == 10_000 || i == bookings - 1) {
+                jdbc.batchUpdate("INSERT INTO bookings (id, check_in_date, check_out_date, total_price, status, user_id, room_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        LocalDate middle = START.plusDays((bookings / 2) * 3L);
+        takenCheckIn = middle;
+        freeCheckIn = middle.plusDays(2);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Booking> findConflictsFree() {
+        return bookingRepository.findConflictingBookings(roomId, freeCheckIn, freeCheckIn);
+    }
+    
+    @Benchmark
+    public List<Booking> findConflictsTaken() {
+        return bookingRepository.findConflictingBookings(roomId, takenCheckIn, takenCheckIn.plusDays(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotel.benchmark;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Імітація віддаленої БД: кожне виконання SQL-запиту затримується на benchmark.db-latency
+ * перед передачею в H2. Затримка — Thread.sleep поза монітором драйвера,
+ * тож віртуальний потік на цей час звільняє потік-носій, як і при очікуванні мережі.
+ */
+public class DatabaseLatency implements BeanPostProcessor {
+    
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    
+    private final Duration latency;
+    
+    public DatabaseLatency(@Value("${benchmark.db-latency:0ms}") Duration latency) {
+        this.latency = latency;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !latency.isZero()) {
+            return proxy(DataSource.class, dataSource, (method, result) ->
+                    result instanceof Connection connection ? proxy(Connection.class, connection, this::wrapStatement) : result);
+        }
+        return bean;
+    }
+    
+    private Object wrapStatement(Method method, Object result) {
+        if (result instanceof Statement statement) {
+            Class<? extends Statement> type = switch (method.getName()) {
+                case "prepareCall" -> CallableStatement.class;
+                case "prepareStatement" -> PreparedStatement.class;
+                default -> Statement.class;
+            };
+            return proxy(type, statement, (ignored, value) -> value, this::delay);
+        }
+        return result;
+    }
+    
+    private void delay(Method method) {
+        if (EXECUTE_METHODS.contains(method.getName())) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private static <T> T proxy(Class<T> type, Object target, ResultMapper mapper) {
+        return proxy(type, target, mapper, method -> {
+        });
+    }
+    
+    private static <T> T proxy(Class<T> type, Object target, ResultMapper mapper, BeforeCall before) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            before.accept(method);
+            try {
+                return mapper.map(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }));
+    }
+    
+    private interface ResultMapper {
+        Object map(Method method, Object result);
+    }
+    
+    private interface BeforeCall {
+        void accept(Method method);
+    }
+}
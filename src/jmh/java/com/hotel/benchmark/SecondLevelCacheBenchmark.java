@@ -0,0 +1,129 @@
+package com.hotel.benchmark;
+
+import com.hotel.dto.BookingDto;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.UserRepository;
+import com.hotel.service.BookingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Створення бронювання (BookingService.createBooking) з кешем другого рівня Hibernate і без нього.
+ * Після кожної ітерації друкується кількість SQL-запитів на бронювання за Hibernate Statistics:
+ * з кешем номер і готель для DTO не читаються з БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+    
+    private static final LocalDate START = LocalDate.now().plusDays(1);
+    private static final String USERNAME = "bench";
+    
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+    
+    @Param({"100"})
+    private int hotels;
+    
+    @Param({"10"})
+    private int roomsPerHotel;
+    
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private Statistics statistics;
+    private List<Long> roomIds;
+    private long bookings;
+    private long iterationBookings;
+    private long iterationStatements;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.generate_statistics=true");
+        bookingService = context.getBean(BookingService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        
+        List<Hotel> seeded = new ArrayList<>(hotels);
+        for (int h = 0; h < hotels; h++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Bench " + h);
+            hotel.setAddress("Main " + h);
+            hotel.setCity("Kyiv");
+            hotel.setStars(4);
+            for (int r = 0; r < roomsPerHotel; r++) {
+                Room room = new Room();
+                room.setRoomNumber(String.valueOf(r));
+                room.setType(Room.RoomType.STANDARD);
+                room.setPricePerNight(BigDecimal.TEN);
+                room.setCapacity(2);
+                hotel.addRoom(room);
+            }
+            seeded.add(hotel);
+        }
+        roomIds = context.getBean(HotelRepository.class).saveAll(seeded).stream()
+                .flatMap(hotel -> hotel.getRooms().stream())
+                .map(Room::getId)
+                .toList();
+        
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setPassword("-");
+        user.setEmail("bench@example.com");
+        user.setFullName("Bench");
+        user.setPhone("0");
+        context.getBean(UserRepository.class).save(user);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        iterationBookings = bookings;
+        iterationStatements = statistics.getPrepareStatementCount();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void reportIteration() {
+        long count = bookings - iterationBookings;
+        long statements = statistics.getPrepareStatementCount() - iterationStatements;
+        System.out.printf("%n[secondLevelCache=%s] %d bookings, %.2f SQL statements per booking, L2 hits %d, misses %d%n",
+                secondLevelCache, count, (double) statements / Math.max(count, 1),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+    }
+    
+    /** Номери по черзі, кожне наступне коло - на наступні дати, тож конфліктів немає. */
+    @Benchmark
+    public BookingDto createBooking() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(USERNAME, null, List.of()));
+        long n = bookings++;
+        BookingDto dto = new BookingDto();
+        dto.setRoomId(roomIds.get((int) (n % roomIds.size())));
+        dto.setCheckInDate(START.plusDays(n / roomIds.size() * 3));
+        dto.setCheckOutDate(dto.getCheckInDate().plusDays(1));
+        return bookingService.createBooking(dto);
+    }
+}
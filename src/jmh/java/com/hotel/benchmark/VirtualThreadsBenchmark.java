@@ -0,0 +1,92 @@
+package com.hotel.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускна здатність при повільній БД: пачка з concurrency одночасних запитів GET /api/bookings/my,
+ * де кожен SQL-запит затримується на dbLatencyMillis (DatabaseLatency).
+ * platform - типовий пул Tomcat (200 потоків), virtual - профіль virtual (потрібна Java 21,
+ * на старішій JVM профіль лишається на потоках платформи й результати збігаються).
+ * Пул з'єднань дорівнює concurrency, тож обмежує лише модель потоків.
+ * Час однієї операції - обробка всієї пачки; запитів за секунду = concurrency / час.
+ * Затримка має переважати CPU-вартість запиту, інакше обидва режими впираються в процесор.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+    
+    @Param({"platform", "virtual"})
+    private String threads;
+    
+    @Param({"50"})
+    private int dbLatencyMillis;
+    
+    @Param({"1000"})
+    private int concurrency;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(new Class<?>[]{DatabaseLatency.class},
+                "spring.profiles.active=" + ("virtual".equals(threads) ? "virtual" : "default"),
+                "benchmark.db-latency=" + dbLatencyMillis + "ms",
+                "spring.datasource.hikari.maximum-pool-size=" + concurrency,
+                "spring.datasource.hikari.connection-timeout=30000",
+                "server.tomcat.threads.max=200");
+        URI base = URI.create("http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port"));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        
+        HttpResponse<String> registered = client.send(HttpRequest.newBuilder(base.resolve("/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"bench\",\"password\":\"bench-password\"," +
+                                "\"email\":\"bench@example.com\",\"fullName\":\"Bench\",\"phone\":\"0\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = new ObjectMapper().readTree(registered.body()).path("token").asText();
+        request = HttpRequest.newBuilder(base.resolve("/api/bookings/my"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException((concurrency - ok) + " of " + concurrency + " requests failed");
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,244 @@
+package com.hotel.load;
+
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.UserRepository;
+import com.hotel.service.HotelSearchIndex;
+import com.hotel.service.OccupancyMatrix;
+import com.hotel.service.RoomAvailabilityIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Наповнення БД через репозиторії: готелі з номерами, користувачі й бронювання.
+ * Популярність готелів і активність користувачів мають розподіл Ципфа:
+ * готель з рангом 0 отримує найбільше бронювань, а його місто — найбільше пошуків.
+ * Індекс зайнятості, матриця та індекс підказок заповнюються при старті контексту, тому після вставки
+ * вони оновлюються тими ж публічними методами, що й під час звичайного бронювання.
+ */
+final class DataGenerator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+    
+    static final String PASSWORD = "load-test-password";
+    static final String ADMIN_USERNAME = "load-admin";
+    
+    /** Бронювання розподіляються на цей період від завтрашнього дня. */
+    static final int BOOKING_WINDOW_DAYS = 180;
+    
+    private static final String[] CITIES = {
+            "Київ", "Львів", "Одеса", "Харків", "Дніпро", "Вінниця", "Запоріжжя", "Полтава",
+            "Чернівці", "Ужгород", "Івано-Франківськ", "Тернопіль", "Житомир", "Рівне", "Луцьк", "Черкаси"
+    };
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_PLACEMENT_ATTEMPTS = 10;
+    
+    private final LoadOptions options;
+    private final HotelRepository hotelRepository;
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final OccupancyMatrix occupancyMatrix;
+    private final HotelSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final SplittableRandom random;
+    
+    DataGenerator(ApplicationContext context, LoadOptions options) {
+        this.options = options;
+        this.hotelRepository = context.getBean(HotelRepository.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.roomRepository = context.getBean(RoomRepository.class);
+        this.bookingRepository = context.getBean(BookingRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.availabilityIndex = context.getBean(RoomAvailabilityIndex.class);
+        this.occupancyMatrix = context.getBean(OccupancyMatrix.class);
+        this.searchIndex = context.getBean(HotelSearchIndex.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        this.random = new SplittableRandom(options.seed());
+    }
+    
+    SeedData generate() {
+        long started = System.nanoTime();
+        // Один хеш на всіх: BCrypt для тисяч користувачів займав би більше часу, ніж сам тест
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        
+        List<SeedData.SeededHotel> hotels = seedHotels();
+        List<String> usernames = seedUsers(passwordHash);
+        List<Long> userIds = userRepository.findAll().stream()
+                .filter(user -> user.getRole() == User.Role.USER)
+                .map(User::getId)
+                .toList();
+        int bookings = seedBookings(hotels, userIds);
+        
+        logger.warn("Seeded {} hotels, {} rooms, {} users, {} bookings in {} ms",
+                hotels.size(), hotels.size() * options.roomsPerHotel(), usernames.size(), bookings,
+                (System.nanoTime() - started) / 1_000_000);
+        return new SeedData(hotels, usernames);
+    }
+    
+    private List<SeedData.SeededHotel> seedHotels() {
+        List<SeedData.SeededHotel> seeded = new ArrayList<>(options.hotels());
+        for (int from = 0; from < options.hotels(); from += CHUNK_SIZE / options.roomsPerHotel() + 1) {
+            int to = Math.min(options.hotels(), from + CHUNK_SIZE / options.roomsPerHotel() + 1);
+            List<Hotel> chunk = new ArrayList<>(to - from);
+            for (int rank = from; rank < to; rank++) {
+                chunk.add(newHotel(rank));
+            }
+            List<Hotel> saved = transactionTemplate.execute(status -> hotelRepository.saveAll(chunk));
+            searchIndex.refresh(saved.stream().map(Hotel::getId).toList());
+            for (Hotel hotel : saved) {
+                long[] roomIds = new long[hotel.getRooms().size()];
+                for (int i = 0; i < roomIds.length; i++) {
+                    Room room = hotel.getRooms().get(i);
+                    roomIds[i] = room.getId();
+                    occupancyMatrix.putRoom(room.getId(), hotel.getCity(), room.getType(), room.getCapacity(), true);
+                }
+                seeded.add(new SeedData.SeededHotel(hotel.getId(), hotel.getCity(), roomIds, pricesOf(hotel)));
+            }
+        }
+        return seeded;
+    }
+    
+    private Hotel newHotel(int rank) {
+        Hotel hotel = new Hotel();
+        hotel.setName("Load Hotel " + rank);
+        hotel.setAddress("вул. Тестова, " + (rank + 1));
+        // Ранги міст теж йдуть за популярністю: найпопулярніші готелі — у перших містах
+        hotel.setCity(CITIES[rank % CITIES.length]);
+        hotel.setStars(1 + random.nextInt(5));
+        for (int number = 1; number <= options.roomsPerHotel(); number++) {
+            Room room = new Room();
+            Room.RoomType type = Room.RoomType.values()[random.nextInt(Room.RoomType.values().length)];
+            room.setRoomNumber(String.valueOf(100 + number));
+            room.setType(type);
+            room.setCapacity(1 + random.nextInt(4));
+            room.setPricePerNight(BigDecimal.valueOf(basePrice(type) + random.nextInt(500)));
+            hotel.addRoom(room);
+        }
+        return hotel;
+    }
+    
+    private static int basePrice(Room.RoomType type) {
+        return switch (type) {
+            case STANDARD -> 1200;
+            case DELUXE -> 2500;
+            case SUITE -> 5000;
+        };
+    }
+    
+    private static BigDecimal[] pricesOf(Hotel hotel) {
+        return hotel.getRooms().stream().map(Room::getPricePerNight).toArray(BigDecimal[]::new);
+    }
+    
+    private List<String> seedUsers(String passwordHash) {
+        List<String> usernames = new ArrayList<>(options.users());
+        List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+        chunk.add(newUser(ADMIN_USERNAME, passwordHash, User.Role.ADMIN));
+        for (int i = 0; i < options.users(); i++) {
+            String username = "load-user-" + i;
+            usernames.add(username);
+            chunk.add(newUser(username, passwordHash, User.Role.USER));
+            if (chunk.size() == CHUNK_SIZE || i == options.users() - 1) {
+                List<User> toSave = List.copyOf(chunk);
+                transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(toSave));
+                chunk.clear();
+            }
+        }
+        return usernames;
+    }
+    
+    private static User newUser(String username, String passwordHash, User.Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordHash);
+        user.setEmail(username + "@load.test");
+        user.setFullName("Load " + username);
+        user.setPhone("+380000000000");
+        user.setRole(role);
+        return user;
+    }
+    
+    /**
+     * Бронювання номерів популярних готелів: готель за Ципфом, номер рівномірно.
+     * Для кожного номера пам'ятається перший вільний день, тож згенеровані інтервали не перетинаються.
+     */
+    private int seedBookings(List<SeedData.SeededHotel> hotels, List<Long> userIds) {
+        ZipfDistribution hotelPopularity = new ZipfDistribution(hotels.size(), options.zipfExponent());
+        ZipfDistribution userActivity = new ZipfDistribution(userIds.size(), options.zipfExponent());
+        LocalDate windowStart = LocalDate.now().plusDays(1);
+        LocalDate windowEnd = windowStart.plusDays(BOOKING_WINDOW_DAYS);
+        LocalDate[][] nextFree = new LocalDate[hotels.size()][];
+        
+        List<Booking> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<long[]> chunkKeys = new ArrayList<>(CHUNK_SIZE);
+        int created = 0;
+        for (int i = 0; i < options.bookings(); i++) {
+            for (int attempt = 0; attempt < MAX_PLACEMENT_ATTEMPTS; attempt++) {
+                int hotelRank = hotelPopularity.sample(random);
+                SeedData.SeededHotel hotel = hotels.get(hotelRank);
+                int roomIndex = random.nextInt(hotel.roomIds().length);
+                if (nextFree[hotelRank] == null) {
+                    nextFree[hotelRank] = new LocalDate[hotel.roomIds().length];
+                }
+                LocalDate free = nextFree[hotelRank][roomIndex];
+                LocalDate checkIn = (free != null ? free : windowStart).plusDays(random.nextInt(7));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(6));
+                if (checkOut.isAfter(windowEnd)) {
+                    continue;
+                }
+                // Межі включні, тому наступне бронювання — не раніше дня після виїзду
+                nextFree[hotelRank][roomIndex] = checkOut.plusDays(1);
+                long roomId = hotel.roomIds()[roomIndex];
+                Booking booking = new Booking();
+                booking.setCheckInDate(checkIn);
+                booking.setCheckOutDate(checkOut);
+                booking.setTotalPrice(hotel.prices()[roomIndex].multiply(BigDecimal.valueOf(booking.getNights())));
+                chunk.add(booking);
+                chunkKeys.add(new long[]{roomId, userIds.get(userActivity.sample(random))});
+                break;
+            }
+            if (chunk.size() == CHUNK_SIZE || (i == options.bookings() - 1 && !chunk.isEmpty())) {
+                created += saveBookings(chunk, chunkKeys);
+                chunk.clear();
+                chunkKeys.clear();
+            }
+        }
+        return created;
+    }
+    
+    private int saveBookings(List<Booking> chunk, List<long[]> keys) {
+        List<Booking> saved = transactionTemplate.execute(status -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setRoom(roomRepository.getReferenceById(keys.get(i)[0]));
+                chunk.get(i).setUser(userRepository.getReferenceById(keys.get(i)[1]));
+            }
+            return bookingRepository.saveAll(chunk);
+        });
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            Long roomId = keys.get(i)[0];
+            if (availabilityIndex.isEnabled()) {
+                availabilityIndex.tryReserve(roomId, booking.getCheckInDate(), booking.getCheckOutDate())
+                        .bind(booking.getId());
+            }
+            occupancyMatrix.occupy(roomId, booking.getCheckInDate(), booking.getCheckOutDate());
+        }
+        return saved.size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotel.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Латентність (HdrHistogram, мікросекунди, 3 значущі цифри) і коди відповідей одного ендпоінта.
+ * Recorder не блокує потоки-записувачі, тож вимірювання не серіалізує робочі потоки.
+ */
+final class EndpointStats {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Map<String, Double> PERCENTILES = Map.of("p50", 50.0, "p90", 90.0, "p99", 99.0, "p99.9", 99.9);
+    
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    
+    void record(long startNanos, int status) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - startNanos) / 1_000);
+        recorder.recordValue(micros);
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+    
+    /** Запит не отримав відповіді (таймаут, обрив з'єднання). */
+    void recordFailure() {
+        failures.increment();
+    }
+    
+    Report report(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        Map<String, Long> codes = new TreeMap<>();
+        statuses.forEach((status, count) -> codes.put(String.valueOf(status), count.sum()));
+        Map<String, Long> percentiles = new TreeMap<>();
+        PERCENTILES.forEach((label, percentile) -> percentiles.put(label, histogram.getValueAtPercentile(percentile)));
+        return new Report(
+                histogram.getTotalCount(),
+                seconds > 0 ? Math.round(histogram.getTotalCount() / seconds * 10) / 10.0 : 0,
+                codes,
+                failures.sum(),
+                Math.round(histogram.getMean() * 10) / 10.0,
+                percentiles,
+                histogram.getMaxValue());
+    }
+    
+    /** Звіт ендпоінта; латентність у мікросекундах. */
+    record Report(long requests,
+                  double throughputPerSecond,
+                  Map<String, Long> statuses,
+                  long failures,
+                  double meanMicros,
+                  Map<String, Long> percentileMicros,
+                  long maxMicros) {
+    }
+}
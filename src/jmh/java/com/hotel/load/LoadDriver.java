@@ -0,0 +1,278 @@
+package com.hotel.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hotel.benchmark.BenchmarkContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Навантажувальний тест на справжньому контексті застосунку (H2 у пам'яті, випадковий порт).
+ * Спочатку DataGenerator наповнює БД, потім потоки в замкненому циклі виконують
+ * змішаний трафік login/search/browse/book/cancel через HTTP.
+ * Після прогріву вимірюються пропускна здатність і перцентилі латентності кожного ендпоінта;
+ * звіт пишеться в JSON з відсортованими ключами, щоб результати запусків можна було порівнювати diff-ом.
+ * Цикл замкнений (наступний запит після відповіді), тому при насиченні хвости латентності занижені.
+ */
+public final class LoadDriver {
+    
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEARCH_LIMIT = 20;
+    
+    private final LoadOptions options;
+    private final SeedData seed;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ZipfDistribution hotelPopularity;
+    private final ZipfDistribution userActivity;
+    private final int[] mixThresholds;
+    private final Operation[] mixOperations;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    /** Створені під час тесту бронювання, які можна скасувати. */
+    private final Queue<Long> cancellable = new ConcurrentLinkedQueue<>();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+    private String adminToken;
+    
+    private LoadDriver(LoadOptions options, SeedData seed, int port) {
+        this.options = options;
+        this.seed = seed;
+        this.baseUri = URI.create("http://localhost:" + port);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.hotelPopularity = new ZipfDistribution(seed.hotels().size(), options.zipfExponent());
+        this.userActivity = new ZipfDistribution(seed.usernames().size(), options.zipfExponent());
+        List<Operation> operations = new ArrayList<>();
+        List<Integer> thresholds = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : options.mix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                operations.add(entry.getKey());
+                thresholds.add(total);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        this.mixOperations = operations.toArray(Operation[]::new);
+        this.mixThresholds = thresholds.stream().mapToInt(Integer::intValue).toArray();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        try (ConfigurableApplicationContext context = BenchmarkContext.start()) {
+            SeedData seed = new DataGenerator(context, options).generate();
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            Map<String, Object> report = new LoadDriver(options, seed, port).run();
+            Files.createDirectories(options.out().toAbsolutePath().getParent());
+            JSON.writeValue(options.out().toFile(), report);
+            System.out.println(JSON.writeValueAsString(report.get("endpoints")));
+            System.out.println("Load test report saved to " + options.out().toAbsolutePath());
+        }
+    }
+    
+    private Map<String, Object> run() throws Exception {
+        adminToken = login(DataGenerator.ADMIN_USERNAME);
+        CountDownLatch finished = new CountDownLatch(options.threads());
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < options.threads(); i++) {
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + i);
+            Thread worker = new Thread(() -> {
+                try {
+                    work(random);
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        workers.forEach(Thread::start);
+        
+        Thread.sleep(options.warmup().toMillis());
+        long measureStart = System.nanoTime();
+        measuring = true;
+        Thread.sleep(options.duration().toMillis());
+        measuring = false;
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        running = false;
+        finished.await();
+        
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            endpoints.put(operation.endpoint(), stats.get(operation).report(seconds));
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", describe(options));
+        report.put("measuredSeconds", Math.round(seconds * 10) / 10.0);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+    
+    private static Map<String, Object> describe(LoadOptions options) {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("seed", options.seed());
+        described.put("hotels", options.hotels());
+        described.put("roomsPerHotel", options.roomsPerHotel());
+        described.put("users", options.users());
+        described.put("bookings", options.bookings());
+        described.put("zipf", options.zipfExponent());
+        described.put("threads", options.threads());
+        described.put("warmup", options.warmup().toString());
+        described.put("duration", options.duration().toString());
+        described.put("mix", options.mix());
+        return described;
+    }
+    
+    private void work(SplittableRandom random) {
+        String token = null;
+        while (running) {
+            Operation operation = token == null ? Operation.LOGIN : nextOperation(random);
+            try {
+                switch (operation) {
+                    case LOGIN -> token = login(random);
+                    case SEARCH -> search(random);
+                    case BROWSE -> browse(random);
+                    case BOOK -> book(random, token);
+                    case CANCEL -> cancel();
+                }
+            } catch (IOException e) {
+                if (measuring) {
+                    stats.get(operation).recordFailure();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private Operation nextOperation(SplittableRandom random) {
+        int roll = random.nextInt(mixThresholds[mixThresholds.length - 1]);
+        for (int i = 0; i < mixThresholds.length; i++) {
+            if (roll < mixThresholds[i]) {
+                return mixOperations[i];
+            }
+        }
+        return mixOperations[mixOperations.length - 1];
+    }
+    
+    private String login(SplittableRandom random) throws IOException, InterruptedException {
+        String username = seed.usernames().get(userActivity.sample(random));
+        HttpResponse<String> response = send(Operation.LOGIN, post("/api/auth/login", loginBody(username)));
+        return response.statusCode() == 200 ? JSON.readTree(response.body()).path("token").asText(null) : null;
+    }
+    
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post("/api/auth/login", loginBody(username)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode());
+        }
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+    
+    private void search(SplittableRandom random) throws IOException, InterruptedException {
+        SeedData.SeededHotel hotel = seed.hotels().get(hotelPopularity.sample(random));
+        LocalDate checkIn = randomCheckIn(random);
+        String query = "?city=" + URLEncoder.encode(hotel.city(), StandardCharsets.UTF_8)
+                + "&checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(1 + random.nextInt(5))
+                + "&limit=" + SEARCH_LIMIT;
+        send(Operation.SEARCH, get("/api/rooms/search" + query));
+    }
+    
+    private void browse(SplittableRandom random) throws IOException, InterruptedException {
+        SeedData.SeededHotel hotel = seed.hotels().get(hotelPopularity.sample(random));
+        send(Operation.BROWSE, get("/api/rooms/hotel/" + hotel.id()));
+    }
+    
+    private void book(SplittableRandom random, String token) throws IOException, InterruptedException {
+        SeedData.SeededHotel hotel = seed.hotels().get(hotelPopularity.sample(random));
+        long roomId = hotel.roomIds()[random.nextInt(hotel.roomIds().length)];
+        LocalDate checkIn = randomCheckIn(random);
+        String body = JSON.writeValueAsString(Map.of(
+                "roomId", roomId,
+                "checkInDate", checkIn.toString(),
+                "checkOutDate", checkIn.plusDays(1 + random.nextInt(5)).toString()));
+        HttpResponse<String> response = send(Operation.BOOK,
+                post("/api/bookings", body).header("Authorization", "Bearer " + token));
+        if (response.statusCode() == 201) {
+            JsonNode id = JSON.readTree(response.body()).path("id");
+            if (id.canConvertToLong()) {
+                cancellable.add(id.asLong());
+            }
+        }
+    }
+    
+    private void cancel() throws IOException, InterruptedException {
+        Long bookingId = cancellable.poll();
+        if (bookingId == null) {
+            return;
+        }
+        send(Operation.CANCEL, HttpRequest.newBuilder(baseUri.resolve("/api/bookings/" + bookingId + "/cancel"))
+                .timeout(REQUEST_TIMEOUT)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Authorization", "Bearer " + adminToken));
+    }
+    
+    private static LocalDate randomCheckIn(SplittableRandom random) {
+        return LocalDate.now().plusDays(1 + random.nextInt(DataGenerator.BOOKING_WINDOW_DAYS - 7));
+    }
+    
+    private HttpResponse<String> send(Operation operation, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        boolean measured = measuring;
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (measured) {
+            stats.get(operation).record(start, response.statusCode());
+        }
+        return response;
+    }
+    
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+    }
+    
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+    
+    private static String loginBody(String username) throws IOException {
+        return JSON.writeValueAsString(Map.of("username", username, "password", DataGenerator.PASSWORD));
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotel.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметри навантажувального тесту у вигляді -ключ=значення, наприклад
+ * -hotels=500 -users=2000 -threads=32 -duration=60s -mix=search:60,book:20,cancel:5.
+ * Однаковий seed дає однакові дані й однакову послідовність операцій кожного потоку.
+ */
+record LoadOptions(long seed,
+                   int hotels,
+                   int roomsPerHotel,
+                   int users,
+                   int bookings,
+                   double zipfExponent,
+                   int threads,
+                   Duration warmup,
+                   Duration duration,
+                   Map<Operation, Integer> mix,
+                   Path out) {
+    
+    private static final Set<String> KNOWN_OPTIONS = Set.of("seed", "hotels", "rooms-per-hotel", "users",
+            "bookings", "zipf", "threads", "warmup", "duration", "mix", "out");
+    
+    static LoadOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("-") || eq < 0) {
+                throw new IllegalArgumentException("Expected -key=value, got: " + arg);
+            }
+            values.put(arg.substring(1, eq), arg.substring(eq + 1));
+        }
+        LoadOptions options = new LoadOptions(
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("hotels", "200")),
+                Integer.parseInt(values.getOrDefault("rooms-per-hotel", "20")),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("bookings", "10000")),
+                Double.parseDouble(values.getOrDefault("zipf", "1.0")),
+                Integer.parseInt(values.getOrDefault("threads", "16")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                parseMix(values.getOrDefault("mix", "login:5,search:45,browse:25,book:20,cancel:5")),
+                Path.of(values.getOrDefault("out", "target/load-result.json")));
+        values.keySet().removeAll(KNOWN_OPTIONS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+    
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hotel.load;
+
+/**
+ * Операції навантажувального тесту; мітка — шаблон маршруту, тож звіт не залежить від конкретних id.
+ */
+enum Operation {
+    LOGIN("POST /api/auth/login"),
+    SEARCH("GET /api/rooms/search"),
+    BROWSE("GET /api/rooms/hotel/{hotelId}"),
+    BOOK("POST /api/bookings"),
+    CANCEL("PUT /api/bookings/{id}/cancel");
+    
+    private final String endpoint;
+    
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    String endpoint() {
+        return endpoint;
+    }
+}
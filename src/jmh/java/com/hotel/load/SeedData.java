@@ -0,0 +1,13 @@
+package com.hotel.load;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Згенеровані дані, потрібні драйверу: готелі в порядку популярності та імена користувачів.
+ */
+record SeedData(List<SeededHotel> hotels, List<String> usernames) {
+    
+    record SeededHotel(Long id, String city, long[] roomIds, BigDecimal[] prices) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.hotel.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Розподіл Ципфа на рангах 0..n-1: ранг k обирається з імовірністю, пропорційною 1 / (k + 1)^exponent.
+ * Кумулятивні ваги обчислюються один раз, вибірка — бінарний пошук, O(log n).
+ */
+final class ZipfDistribution {
+    
+    private final double[] cumulative;
+    
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+    
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hotel.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вартість BCrypt залежно від складності; offloadedMatches - те саме через окремий пул
+ * OffloadingPasswordEncoder, тобто з витратами на передачу задачі.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+    
+    private static final String PASSWORD = "secret1";
+    
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+    
+    private BCryptPasswordEncoder encoder;
+    private OffloadingPasswordEncoder offloadingEncoder;
+    private String hash;
+    
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        offloadingEncoder = new OffloadingPasswordEncoder(strength, 1, 64, new SimpleMeterRegistry());
+        hash = encoder.encode(PASSWORD);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        offloadingEncoder.shutdown();
+    }
+    
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+    
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+    
+    @Benchmark
+    public boolean offloadedMatches() {
+        return offloadingEncoder.matches(PASSWORD, hash);
+    }
+}
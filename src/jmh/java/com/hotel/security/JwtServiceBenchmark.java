@@ -0,0 +1,54 @@
+package com.hotel.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Видача й перевірка JWT: перевірка з кешу перевірених токенів проти повного розбору з підписом.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong12345";
+    
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 10_000L);
+        jwtService.init();
+        user = User.withUsername("user1").password("").authorities("ROLE_USER").build();
+        token = jwtService.generateToken(user);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+    
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+    
+    @Benchmark
+    public String parseSignedToken() {
+        return jwtService.extractClaim(token, Claims::getSubject);
+    }
+}
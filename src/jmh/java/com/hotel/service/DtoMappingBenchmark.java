@@ -0,0 +1,99 @@
+package com.hotel.service;
+
+import com.hotel.dto.BookingDto;
+import com.hotel.dto.HotelDto;
+import com.hotel.dto.RoomDto;
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.repository.BookingView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перетворення сутностей і проєкцій на DTO у HotelService, RoomService та BookingService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    
+    private HotelService hotelService;
+    private RoomService roomService;
+    private BookingService bookingService;
+    
+    private Hotel hotel;
+    private Room room;
+    private Booking booking;
+    private BookingView bookingView;
+    
+    @Setup
+    public void setUp() {
+        // Репозиторії не потрібні: toDto працює лише з переданими об'єктами
+        hotelService = new HotelService(null, null, null, null, null, null, null);
+        roomService = new RoomService(null, null, null, null, null, null, null);
+        bookingService = new BookingService(null, null, null, null, null, null, "pessimistic", new SimpleMeterRegistry());
+        
+        hotel = new Hotel();
+        hotel.setId(1L);
+        hotel.setName("Grand");
+        hotel.setAddress("Main 1");
+        hotel.setCity("Kyiv");
+        hotel.setStars(5);
+        hotel.setVersion(3L);
+        
+        room = new Room();
+        room.setId(10L);
+        room.setRoomNumber("101");
+        room.setType(Room.RoomType.DELUXE);
+        room.setPricePerNight(new BigDecimal("100.00"));
+        room.setCapacity(2);
+        room.setVersion(1L);
+        room.setHotel(hotel);
+        
+        User user = new User();
+        user.setId(5L);
+        user.setUsername("user1");
+        user.setFullName("User One");
+        
+        booking = new Booking();
+        booking.setId(100L);
+        booking.setUser(user);
+        booking.setRoom(room);
+        booking.setCheckInDate(LocalDate.of(2030, 1, 1));
+        booking.setCheckOutDate(LocalDate.of(2030, 1, 5));
+        booking.setTotalPrice(new BigDecimal("400.00"));
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        
+        bookingView = new BookingView(100L, 10L, booking.getCheckInDate(), booking.getCheckOutDate(),
+                booking.getTotalPrice(), Booking.BookingStatus.CONFIRMED, "User One", "101", "Grand");
+    }
+    
+    @Benchmark
+    public HotelDto hotelToDto() {
+        return hotelService.toDto(hotel, 30);
+    }
+    
+    @Benchmark
+    public RoomDto roomToDto() {
+        return roomService.toDto(room);
+    }
+    
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingService.toDto(booking);
+    }
+    
+    @Benchmark
+    public BookingDto bookingViewToDto() {
+        return bookingService.toDto(bookingView);
+    }
+}
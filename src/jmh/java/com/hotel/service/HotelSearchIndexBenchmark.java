@@ -0,0 +1,79 @@
+package com.hotel.service;
+
+import com.hotel.dto.HotelSuggestion;
+import com.hotel.repository.HotelText;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Підказки HotelSearchIndex для 1000 та 100000 готелів з описами зі словника в 2000 слів:
+ * одна літера (префікс), частина слова (триграми) та два слова.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotelSearchIndexBenchmark {
+    
+    private static final String[] CITIES = {"Kyiv", "Lviv", "Odesa", "Kharkiv", "Dnipro", "Uzhhorod", "Chernivtsi"};
+    private static final int WORDS = 2000;
+    private static final int LIMIT = 10;
+    
+    @Param({"1000", "100000"})
+    private int hotels;
+    
+    private HotelSearchIndex index;
+    
+    @Setup
+    public void setUp() {
+        index = new HotelSearchIndex(null, null);
+        SplittableRandom random = new SplittableRandom(42);
+        String[] words = new String[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            words[i] = word(random);
+        }
+        for (long id = 1; id <= hotels; id++) {
+            String name = capitalize(words[random.nextInt(WORDS)]) + " " + capitalize(words[random.nextInt(WORDS)]);
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < 20; i++) {
+                description.append(words[random.nextInt(WORDS)]).append(' ');
+            }
+            index.put(new HotelText(id, name, CITIES[random.nextInt(CITIES.length)], description.toString()),
+                    List.of(words[random.nextInt(WORDS)] + " " + words[random.nextInt(WORDS)]));
+        }
+    }
+    
+    @Benchmark
+    public List<HotelSuggestion> singleLetter() {
+        return index.suggest("k", LIMIT);
+    }
+    
+    @Benchmark
+    public List<HotelSuggestion> infix() {
+        return index.suggest("arn", LIMIT);
+    }
+    
+    @Benchmark
+    public List<HotelSuggestion> twoWords() {
+        return index.suggest("lviv ka", LIMIT);
+    }
+    
+    private static String word(SplittableRandom random) {
+        String letters = "aeiouklmnprstv";
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append(letters.charAt(random.nextInt(letters.length())));
+        }
+        return word.toString();
+    }
+    
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
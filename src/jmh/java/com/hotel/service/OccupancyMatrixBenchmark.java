@@ -0,0 +1,103 @@
+package com.hotel.service;
+
+import com.hotel.entity.Room;
+import com.hotel.repository.BookingInterval;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.RoomAttributes;
+import com.hotel.repository.RoomRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пошук вільних номерів за матрицею зайнятості (OccupancyMatrix.findFree): 100000 номерів x 365 днів,
+ * кожен номер зайнятий приблизно на дві третини горизонту. Режим SampleTime дає перцентилі (p99).
+ * Сценарії: місто + тип + місткість та пошук без фільтрів (AND по всіх словах стовпців).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class OccupancyMatrixBenchmark {
+    
+    private static final int HORIZON_DAYS = 365;
+    private static final int CITIES = 100;
+    private static final int QUERIES = 1024;
+    /** Бронювання номера: заїзд кожні 6 днів, 2-4 ночі. */
+    private static final int BOOKING_PERIOD = 6;
+    
+    @Param({"100000"})
+    private int rooms;
+    
+    @Param({"city", "any"})
+    private String filter;
+    
+    @Param({"100"})
+    private int limit;
+    
+    private OccupancyMatrix matrix;
+    private final List<Query> queries = new ArrayList<>(QUERIES);
+    private int next;
+    
+    private record Query(String city, Room.RoomType type, Integer capacity, LocalDate checkIn, LocalDate checkOut) {
+    }
+    
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        Room.RoomType[] types = Room.RoomType.values();
+        List<RoomAttributes> attributes = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            attributes.add(new RoomAttributes((long) i + 1, "City " + (i % CITIES), types[i % types.length], 1 + i % 4, true));
+        }
+        int perRoom = HORIZON_DAYS / BOOKING_PERIOD;
+        // Інтервали обчислюються на льоту: ~6 млн записів не тримаються в пам'яті
+        List<BookingInterval> intervals = new AbstractList<>() {
+            @Override
+            public BookingInterval get(int index) {
+                long room = index / perRoom;
+                int slot = index % perRoom;
+                LocalDate checkIn = today.plusDays((long) slot * BOOKING_PERIOD + room % 2);
+                return new BookingInterval((long) index, room + 1, checkIn, checkIn.plusDays(2 + room % 3));
+            }
+            
+            @Override
+            public int size() {
+                return rooms * perRoom;
+            }
+        };
+        matrix = new OccupancyMatrix(repository(RoomRepository.class, "findAllAttributes", attributes),
+                repository(BookingRepository.class, "findActiveIntervals", intervals), HORIZON_DAYS);
+        matrix.load();
+        
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < QUERIES; i++) {
+            LocalDate checkIn = today.plusDays(random.nextInt(HORIZON_DAYS - 10));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            queries.add(filter.equals("city")
+                    ? new Query("City " + random.nextInt(CITIES), types[random.nextInt(types.length)], 2, checkIn, checkOut)
+                    : new Query(null, null, null, checkIn, checkOut));
+        }
+    }
+    
+    @Benchmark
+    public List<Long> findFree() {
+        Query query = queries.get(next++ & (QUERIES - 1));
+        return matrix.findFree(query.city(), query.type(), query.capacity(), query.checkIn(), query.checkOut(), limit);
+    }
+    
+    /** Репозиторій-заглушка: один метод повертає дані, решта - порожній список. */
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, String method, List<?> result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, invoked, args) -> invoked.getName().equals(method) ? result : List.of());
+    }
+}
@@ -0,0 +1,59 @@
+package com.hotel.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перевірка конфлікту при бронюванні (createBooking з увімкненим індексом)
+ * для номера з 10, 1000 та 100000 активних бронювань.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomAvailabilityIndexBenchmark {
+    
+    private static final Long ROOM_ID = 1L;
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+    
+    @Param({"10", "1000", "100000"})
+    private int bookings;
+    
+    private RoomAvailabilityIndex index;
+    private LocalDate freeCheckIn;
+    private LocalDate takenCheckIn;
+    
+    @Setup
+    public void setUp() {
+        index = new RoomAvailabilityIndex(null, true);
+        // Бронювання по 2 дні з вільним днем між ними
+        for (int i = 0; i < bookings; i++) {
+            LocalDate checkIn = START.plusDays(i * 3L);
+            index.tryReserve(ROOM_ID, checkIn, checkIn.plusDays(1)).bind((long) i);
+        }
+        LocalDate middle = START.plusDays((bookings / 2) * 3L);
+        takenCheckIn = middle;
+        freeCheckIn = middle.plusDays(2);
+    }
+    
+    @Benchmark
+    public boolean hasConflictFree() {
+        return index.hasConflict(ROOM_ID, freeCheckIn, freeCheckIn);
+    }
+    
+    @Benchmark
+    public boolean hasConflictTaken() {
+        return index.hasConflict(ROOM_ID, takenCheckIn, takenCheckIn.plusDays(1));
+    }
+    
+    @Benchmark
+    public RoomAvailabilityIndex.Reservation reserveAndRelease() {
+        RoomAvailabilityIndex.Reservation reservation = index.tryReserve(ROOM_ID, freeCheckIn, freeCheckIn);
+        index.release(reservation);
+        return reservation;
+    }
+}
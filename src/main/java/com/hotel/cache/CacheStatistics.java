@@ -0,0 +1,5 @@
+package com.hotel.cache;
+
+/** Статистика звернень до кешу з моменту запуску. */
+public record CacheStatistics(String name, long size, long nearHits, long sharedHits, long misses, double hitRatio) {
+}
@@ -0,0 +1,63 @@
+package com.hotel.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Імена кешів каталогу та точкова інвалідація для операцій запису.
+ * HotelDto містить кількість номерів, а RoomDto - назву готелю,
+ * тому зміни номера й готелю зачіпають записи одне одного.
+ */
+@Component
+public class CatalogCaches {
+    
+    public static final String HOTELS = "hotels";
+    public static final String HOTEL_LIST = "hotelList";
+    public static final String ROOMS = "rooms";
+    public static final String HOTEL_ROOMS = "hotelRooms";
+    
+    public static final List<String> NAMES = List.of(HOTELS, HOTEL_LIST, ROOMS, HOTEL_ROOMS);
+    
+    private final CacheManager cacheManager;
+    
+    public CatalogCaches(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+    
+    /** Готель змінено, створено або видалено: його запис, список готелів і номери з його назвою. */
+    public void evictHotel(Long hotelId, Collection<Long> roomIds) {
+        evict(HOTELS, hotelId);
+        evict(HOTEL_LIST, null);
+        evict(HOTEL_ROOMS, hotelId);
+        roomIds.forEach(roomId -> evict(ROOMS, roomId));
+    }
+    
+    /**
+     * Номер змінено: його запис і список номерів готелю.
+     * Якщо змінилась кількість номерів (створення, видалення) - ще й запис готелю та список готелів.
+     */
+    public void evictRoom(Long roomId, Long hotelId, boolean roomCountChanged) {
+        evict(ROOMS, roomId);
+        evict(HOTEL_ROOMS, hotelId);
+        if (roomCountChanged) {
+            evict(HOTELS, hotelId);
+            evict(HOTEL_LIST, null);
+        }
+    }
+    
+    private void evict(String name, Long key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotel.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Дворівневий кеш: in-process Caffeine (near) перед необов'язковим спільним кешем (shared).
+ * Промах у near шукається в shared і піднімається в near; запис і інвалідація йдуть в обидва рівні.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+    
+    private final String name;
+    private final Cache<Object, Object> near;
+    private final org.springframework.cache.Cache shared;
+    
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    public TwoTierCache(String name, Cache<Object, Object> near, org.springframework.cache.Cache shared) {
+        super(false);
+        this.name = name;
+        this.near = near;
+        this.shared = shared;
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public Object getNativeCache() {
+        return near;
+    }
+    
+    @Override
+    protected Object lookup(Object key) {
+        Object value = near.getIfPresent(key);
+        if (value != null) {
+            nearHits.increment();
+            return value;
+        }
+        value = lookupShared(key);
+        if (value != null) {
+            near.put(key, value);
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = near.getIfPresent(key);
+        if (cached != null) {
+            nearHits.increment();
+            return (T) fromStoreValue(cached);
+        }
+        // Один завантажувач на ключ: паралельні промахи чекають на перший
+        return (T) fromStoreValue(near.get(key, k -> {
+            Object value = lookupShared(k);
+            if (value != null) {
+                return value;
+            }
+            misses.increment();
+            try {
+                value = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            if (shared != null) {
+                shared.put(k, value);
+            }
+            return value;
+        }));
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        near.put(key, toStoreValue(value));
+        if (shared != null) {
+            shared.put(key, value);
+        }
+    }
+    
+    @Override
+    public void evict(Object key) {
+        near.invalidate(key);
+        if (shared != null) {
+            shared.evict(key);
+        }
+    }
+    
+    @Override
+    public void clear() {
+        near.invalidateAll();
+        if (shared != null) {
+            shared.clear();
+        }
+    }
+    
+    public CacheStatistics statistics() {
+        long nearHitCount = nearHits.sum();
+        long sharedHitCount = sharedHits.sum();
+        long missCount = misses.sum();
+        long requests = nearHitCount + sharedHitCount + missCount;
+        double hitRatio = requests == 0 ? 0.0 : (double) (nearHitCount + sharedHitCount) / requests;
+        return new CacheStatistics(name, near.estimatedSize(), nearHitCount, sharedHitCount, missCount, hitRatio);
+    }
+    
+    private Object lookupShared(Object key) {
+        if (shared == null) {
+            return null;
+        }
+        ValueWrapper wrapper = shared.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        sharedHits.increment();
+        return wrapper.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hotel.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Менеджер дворівневих кешів.
+ * Працює з урахуванням транзакцій: put і evict усередині транзакції виконуються після коміту,
+ * тож кеш не бачить змін, які ще можуть відкотитися.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+    
+    private final Caffeine<Object, Object> nearSpec;
+    private final CacheManager shared;
+    private final Collection<String> cacheNames;
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    
+    public TwoTierCacheManager(Caffeine<Object, Object> nearSpec, CacheManager shared, Collection<String> cacheNames) {
+        this.nearSpec = nearSpec;
+        this.shared = shared;
+        this.cacheNames = List.copyOf(cacheNames);
+        setTransactionAware(true);
+    }
+    
+    public boolean hasSharedTier() {
+        return shared != null;
+    }
+    
+    public List<CacheStatistics> statistics() {
+        return caches.values().stream()
+                .map(TwoTierCache::statistics)
+                .sorted((a, b) -> a.name().compareTo(b.name()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream().map(this::createCache).collect(Collectors.toList());
+    }
+    
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+    
+    private TwoTierCache createCache(String name) {
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(n, nearSpec.build(),
+                shared != null ? shared.getCache(n) : null));
+    }
+}
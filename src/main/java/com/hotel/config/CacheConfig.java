@@ -0,0 +1,64 @@
+package com.hotel.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.cache.CatalogCaches;
+import com.hotel.cache.TwoTierCacheManager;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Конфігурація кешу каталогу.
+ * Near-рівень - Caffeine у кожному екземплярі застосунку; спільний рівень підключається
+ * оголошенням бина CacheManager з іменем sharedCacheManager (наприклад, Redis).
+ * Кеш перевіряється до відкриття транзакції, тож влучання не займає з'єднання з БД.
+ * Тут же створюється JCache-менеджер кешу другого рівня Hibernate.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    
+    @Bean
+    public TwoTierCacheManager cacheManager(@Value("${catalog.cache.max-size:10000}") long maxSize,
+                                            @Value("${catalog.cache.ttl:10m}") Duration ttl,
+                                            @Qualifier("sharedCacheManager") ObjectProvider<CacheManager> sharedCacheManager) {
+        Caffeine<Object, Object> nearSpec = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl);
+        return new TwoTierCacheManager(nearSpec, sharedCacheManager.getIfAvailable(), CatalogCaches.NAMES);
+    }
+    
+    /**
+     * Менеджер кешу другого рівня Hibernate (регіони - hibernate-cache.conf).
+     * Hibernate сам перетворює hibernate.javax.cache.uri на URL: у зібраному jar це jar:-URL, який Caffeine
+     * не читає, а схема classpath: працює лише з обробником вбудованого Tomcat. Ім'я ресурсу без схеми
+     * Caffeine шукає через завантажувач класів - у будь-якому контексті, зокрема без веб-сервера.
+     * Менеджер закриває Hibernate разом із SessionFactory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManager(
+            @Value("${spring.jpa.properties.hibernate.javax.cache.provider}") String provider,
+            @Value("${spring.jpa.properties.hibernate.javax.cache.uri}") String resource) {
+        return properties -> {
+            ClassLoader classLoader = CacheConfig.class.getClassLoader();
+            // Власний екземпляр провайдера: менеджер із Caching.getCachingProvider спільний для всієї JVM,
+            // і кілька контекстів (тести з окремими БД) ділили б ті самі регіони
+            CachingProvider cachingProvider = (CachingProvider) BeanUtils.instantiateClass(
+                    ClassUtils.resolveClassName(provider, classLoader));
+            properties.put(ConfigSettings.CACHE_MANAGER, cachingProvider.getCacheManager(URI.create(resource), classLoader));
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.hotel.config;
+
+import com.hotel.service.BookingService;
+import com.hotel.service.HotelService;
+import com.hotel.service.RoomService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Репліка для читання (задано datasource.replica.url, профіль replica).
+ * Два пули Hikari: primary (spring.datasource.*) і replica (datasource.replica.*), кожен з метриками hikaricp.
+ * Читаючі методи HotelService, RoomService і BookingService ідуть на репліку - див. ReadReplicaRoutingDataSource.
+ * Прапорець readOnly з'являється вже після того, як JpaTransactionManager просить з'єднання,
+ * тому пул вибирається ліниво - при першому SQL-запиті транзакції.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.url")
+public class ReadReplicaConfig {
+    
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(Set.of(
+                HotelService.class.getName(), RoomService.class.getName(), BookingService.class.getName()));
+        routing.setTargetDataSources(Map.of(
+                ReadReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+                ReadReplicaRoutingDataSource.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    /**
+     * Лише для локальної перевірки з двома файловими БД H2, між якими немає реплікації:
+     * та сама міграція застосовується й до репліки.
+     */
+    @Bean
+    @ConditionalOnProperty("datasource.replica.migrate")
+    public FlywayMigrationStrategy replicaMigrationStrategy(HikariDataSource replicaDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            Flyway.configure().configuration(flyway.getConfiguration()).dataSource(replicaDataSource).load().migrate();
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.hotel.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+/**
+ * Вибір пулу для з'єднання: replica для транзакцій readOnly = true, що почались у методах
+ * вказаних сервісів, primary для решти. Власні транзакції репозиторіїв (завантаження
+ * індексів у пам'яті при старті, реєстр відкликаних токенів) теж readOnly, але читають з primary,
+ * щоб відставання репліки не потрапило в перевірку конфліктів бронювань.
+ */
+class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+    
+    private final Set<String> replicaServices;
+    
+    ReadReplicaRoutingDataSource(Set<String> replicaServices) {
+        this.replicaServices = replicaServices;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        // Ім'я декларативної транзакції - клас і метод, з якого вона почалась
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null) {
+            return PRIMARY;
+        }
+        int method = name.lastIndexOf('.');
+        return method > 0 && replicaServices.contains(name.substring(0, method)) ? REPLICA : PRIMARY;
+    }
+}
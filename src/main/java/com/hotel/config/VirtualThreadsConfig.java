@@ -0,0 +1,29 @@
+package com.hotel.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Профіль virtual (application-virtual.properties).
+ * На Java до 21 Spring Boot мовчки ігнорує spring.threads.virtual.enabled,
+ * тому невідповідність версії JVM явно показується в лозі.
+ */
+@Configuration
+@Profile("virtual")
+public class VirtualThreadsConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    
+    @PostConstruct
+    void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            logger.warn("Profile 'virtual' needs Java 21, running on Java {}: requests stay on platform threads", feature);
+        } else {
+            logger.info("Serving requests on virtual threads (Java {})", feature);
+        }
+    }
+}
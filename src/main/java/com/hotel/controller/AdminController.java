@@ -0,0 +1,59 @@
+package com.hotel.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hotel.cache.CacheStatistics;
+import com.hotel.cache.TwoTierCacheManager;
+import com.hotel.dto.ImportStatus;
+import com.hotel.security.CustomUserDetailsService;
+import com.hotel.service.ImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    
+    private final TwoTierCacheManager cacheManager;
+    private final CustomUserDetailsService userDetailsService;
+    private final ImportService importService;
+    
+    public AdminController(TwoTierCacheManager cacheManager, CustomUserDetailsService userDetailsService,
+                           ImportService importService) {
+        this.cacheManager = cacheManager;
+        this.userDetailsService = userDetailsService;
+        this.importService = importService;
+    }
+    
+    // Потоковий імпорт готелів і номерів (text/csv з заголовком або application/x-ndjson);
+    // повторне завантаження з тим самим jobId продовжує з контрольної точки
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportStatus> importInventory(@RequestParam(required = false) String jobId,
+                                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) {
+        ImportService.Format format = "csv".equalsIgnoreCase(MediaType.parseMediaType(contentType).getSubtype())
+                ? ImportService.Format.CSV : ImportService.Format.NDJSON;
+        return ResponseEntity.ok(importService.importInventory(jobId, format, body));
+    }
+    
+    // Прогрес імпорту
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportStatus> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(importService.getStatus(jobId));
+    }
+    
+    // Влучання та промахи кешів каталогу й користувачів
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatistics>> getCacheStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>(cacheManager.statistics());
+        CacheStats users = userDetailsService.stats();
+        statistics.add(new CacheStatistics("users", userDetailsService.size(), users.hitCount(), 0,
+                users.missCount(), users.hitRate()));
+        return ResponseEntity.ok(statistics);
+    }
+}
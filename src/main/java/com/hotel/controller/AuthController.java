@@ -2,11 +2,13 @@ package com.hotel.controller;
 
 import com.hotel.dto.AuthResponse;
 import com.hotel.dto.LoginRequest;
+import com.hotel.dto.RefreshTokenRequest;
 import com.hotel.dto.RegisterRequest;
 import com.hotel.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -33,4 +35,18 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+    
+    // Новий access-токен в обмін на refresh-токен; refresh-токен одноразовий і теж замінюється
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+    
+    // Відкликання токенів користувача (тільки ADMIN)
+    @PostMapping("/revoke/{username}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String username) {
+        authService.revokeTokens(username);
+        return ResponseEntity.noContent().build();
+    }
 }
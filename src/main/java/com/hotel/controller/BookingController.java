@@ -1,5 +1,7 @@
 package com.hotel.controller;
 
+import com.hotel.dto.BatchBookingRequest;
+import com.hotel.dto.BatchBookingResponse;
 import com.hotel.dto.BookingDto;
 import com.hotel.service.BookingService;
 import jakarta.validation.Valid;
@@ -7,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,9 +18,11 @@ import java.util.List;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final NdjsonStreams ndjsonStreams;
     
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, NdjsonStreams ndjsonStreams) {
         this.bookingService = bookingService;
+        this.ndjsonStreams = ndjsonStreams;
     }
     
     // Бронювання номера (авторизований користувач)
@@ -26,6 +31,14 @@ public class BookingController {
         return new ResponseEntity<>(bookingService.createBooking(dto), HttpStatus.CREATED);
     }
     
+    // Пакетне бронювання кількох номерів; 400, якщо не створено жодного
+    @PostMapping("/batch")
+    public ResponseEntity<BatchBookingResponse> createBookings(@Valid @RequestBody BatchBookingRequest request) {
+        BatchBookingResponse response = bookingService.createBookings(request);
+        HttpStatus status = response.getCreated().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return new ResponseEntity<>(response, status);
+    }
+    
     // Мої бронювання
     @GetMapping("/my")
     public ResponseEntity<List<BookingDto>> getMyBookings() {
@@ -46,8 +59,21 @@ public class BookingController {
     // Всі бронювання (тільки ADMIN)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<BookingDto>> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<List<BookingDto>> getAllBookings(@RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit) {
+        if (!KeysetResponses.isPaged(after, limit)) {
+            return ResponseEntity.ok(bookingService.getAllBookings());
+        }
+        int pageSize = KeysetResponses.limit(limit);
+        return KeysetResponses.page(bookingService.getBookingsPage(KeysetResponses.after(after), pageSize),
+                pageSize, BookingDto::getId);
+    }
+    
+    // Потік усіх бронювань у форматі NDJSON (тільки ADMIN)
+    @GetMapping("/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllBookings() {
+        return ndjsonStreams.stream(bookingService::streamAllBookings);
     }
     
     // Скасування бронювання (тільки ADMIN)
@@ -0,0 +1,59 @@
+package com.hotel.controller;
+
+import com.hotel.dto.HotelDto;
+import com.hotel.dto.RoomDto;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Сильні ETag для каталогу, обчислені з версій сутностей, а не з тіла відповіді.
+ * Для відповіді 200 з ETag Spring сам перевіряє If-None-Match і повертає 304 без серіалізації;
+ * разом із кешем каталогу незмінний ресурс не зачіпає ні БД, ні Jackson.
+ */
+final class CatalogETags {
+    
+    private CatalogETags() {
+    }
+    
+    static ResponseEntity<HotelDto> hotel(HotelDto hotel) {
+        return withETag("h" + hotel.getId() + "." + hotel.getVersion() + "." + hotel.getRoomCount(), hotel);
+    }
+    
+    static ResponseEntity<List<HotelDto>> hotels(List<HotelDto> hotels) {
+        long hash = 1;
+        for (HotelDto hotel : hotels) {
+            hash = mix(hash, hotel.getId(), hotel.getVersion(), hotel.getRoomCount().longValue());
+        }
+        return withETag("hl." + hotels.size() + "." + Long.toHexString(hash), hotels);
+    }
+    
+    // Назва готелю входить у відповідь, тому враховується й версія готелю
+    static ResponseEntity<RoomDto> room(RoomDto room) {
+        return withETag("r" + room.getId() + "." + room.getVersion() + "." + room.getHotelVersion(), room);
+    }
+    
+    static ResponseEntity<List<RoomDto>> hotelRooms(Long hotelId, List<RoomDto> rooms) {
+        long hash = 1;
+        for (RoomDto room : rooms) {
+            hash = mix(hash, room.getId(), room.getVersion(), room.getHotelVersion());
+        }
+        return withETag("hr" + hotelId + "." + rooms.size() + "." + Long.toHexString(hash), rooms);
+    }
+    
+    private static <T> ResponseEntity<T> withETag(String tag, T body) {
+        return ResponseEntity.ok()
+                .eTag("\"" + tag + "\"")
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+    
+    private static long mix(long hash, Long... values) {
+        for (Long value : values) {
+            hash = hash * 31 + (value != null ? value : 0L);
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+}
@@ -1,32 +1,73 @@
 package com.hotel.controller;
 
 import com.hotel.dto.HotelDto;
+import com.hotel.dto.HotelSuggestion;
+import com.hotel.entity.Room;
 import com.hotel.service.HotelService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/hotels")
 public class HotelController {
     
+    private static final int MAX_SUGGESTIONS = 50;
+    
     private final HotelService hotelService;
+    private final NdjsonStreams ndjsonStreams;
     
-    public HotelController(HotelService hotelService) {
+    public HotelController(HotelService hotelService, NdjsonStreams ndjsonStreams) {
         this.hotelService = hotelService;
+        this.ndjsonStreams = ndjsonStreams;
     }
     
+    // Без параметрів - весь список; з ?after=&limit= - keyset-сторінка
     @GetMapping
-    public ResponseEntity<List<HotelDto>> getAllHotels() {
-        return ResponseEntity.ok(hotelService.getAllHotels());
+    public ResponseEntity<List<HotelDto>> getAllHotels(@RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer limit) {
+        if (!KeysetResponses.isPaged(after, limit)) {
+            return CatalogETags.hotels(hotelService.getAllHotels());
+        }
+        int pageSize = KeysetResponses.limit(limit);
+        return KeysetResponses.page(hotelService.getHotelsPage(KeysetResponses.after(after), pageSize),
+                pageSize, HotelDto::getId);
+    }
+    
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamHotels() {
+        return ndjsonStreams.stream(hotelService::streamHotels);
+    }
+    
+    // Фасетний пошук (публічний); результат завжди keyset-сторінка
+    @GetMapping("/search")
+    public ResponseEntity<List<HotelDto>> searchHotels(@RequestParam(required = false) String city,
+                                                       @RequestParam(required = false) Integer stars,
+                                                       @RequestParam(required = false) BigDecimal minPrice,
+                                                       @RequestParam(required = false) BigDecimal maxPrice,
+                                                       @RequestParam(required = false) Room.RoomType roomType,
+                                                       @RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer limit) {
+        int pageSize = KeysetResponses.limit(limit);
+        return KeysetResponses.page(hotelService.searchHotels(city, stars, minPrice, maxPrice, roomType, after, pageSize),
+                pageSize, HotelDto::getId);
+    }
+    
+    // Підказки під час введення (публічний): назва, місто, описи готелю та номерів
+    @GetMapping("/suggest")
+    public ResponseEntity<List<HotelSuggestion>> suggestHotels(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(hotelService.suggestHotels(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<HotelDto> getHotelById(@PathVariable Long id) {
-        return ResponseEntity.ok(hotelService.getHotelById(id));
+        return CatalogETags.hotel(hotelService.getHotelById(id));
     }
     
     @PostMapping
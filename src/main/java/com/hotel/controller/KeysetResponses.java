@@ -0,0 +1,40 @@
+package com.hotel.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Відповіді з keyset-пагінацією: клієнт передає ?after=<id>&limit=,
+ * а id останнього елемента повної сторінки повертається в заголовку X-Next-Cursor.
+ */
+final class KeysetResponses {
+    
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+    
+    private KeysetResponses() {
+    }
+    
+    static boolean isPaged(Long after, Integer limit) {
+        return after != null || limit != null;
+    }
+    
+    static long after(Long after) {
+        return after != null ? after : 0L;
+    }
+    
+    static int limit(Integer limit) {
+        return limit != null ? Math.max(1, Math.min(limit, MAX_LIMIT)) : DEFAULT_LIMIT;
+    }
+    
+    static <T> ResponseEntity<List<T>> page(List<T> items, int limit, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(id.apply(items.get(items.size() - 1))));
+        }
+        return response.body(items);
+    }
+}
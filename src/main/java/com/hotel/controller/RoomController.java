@@ -1,12 +1,17 @@
 package com.hotel.controller;
 
 import com.hotel.dto.RoomDto;
+import com.hotel.entity.Room;
+import com.hotel.exception.BadRequestException;
 import com.hotel.service.RoomService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -14,20 +19,50 @@ import java.util.List;
 public class RoomController {
     
     private final RoomService roomService;
+    private final NdjsonStreams ndjsonStreams;
     
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, NdjsonStreams ndjsonStreams) {
         this.roomService = roomService;
+        this.ndjsonStreams = ndjsonStreams;
     }
     
-    // Перегляд доступних номерів (публічний)
+    // Перегляд доступних номерів (публічний); з ?after=&limit= - keyset-сторінка
     @GetMapping("/available")
-    public ResponseEntity<List<RoomDto>> getAvailableRooms() {
-        return ResponseEntity.ok(roomService.getAvailableRooms());
+    public ResponseEntity<List<RoomDto>> getAvailableRooms(@RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit) {
+        if (!KeysetResponses.isPaged(after, limit)) {
+            return ResponseEntity.ok(roomService.getAvailableRooms());
+        }
+        int pageSize = KeysetResponses.limit(limit);
+        return KeysetResponses.page(roomService.getAvailableRoomsPage(KeysetResponses.after(after), pageSize),
+                pageSize, RoomDto::getId);
+    }
+    
+    @GetMapping("/available/stream")
+    public ResponseEntity<StreamingResponseBody> streamAvailableRooms() {
+        return ndjsonStreams.stream(roomService::streamAvailableRooms);
+    }
+    
+    // Пошук номерів, вільних на вказані дати (публічний)
+    @GetMapping("/search")
+    public ResponseEntity<List<RoomDto>> searchAvailableRooms(
+            @RequestParam(required = false) String city,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) Room.RoomType type,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("limit має бути більшим за 0");
+        }
+        // Не більше сторінки: знайдені номери завантажуються одним запитом з IN-списком
+        int clamped = Math.min(limit, KeysetResponses.MAX_LIMIT);
+        return ResponseEntity.ok(roomService.searchAvailableRooms(city, checkIn, checkOut, capacity, type, clamped));
     }
     
     @GetMapping("/hotel/{hotelId}")
     public ResponseEntity<List<RoomDto>> getRoomsByHotel(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(roomService.getRoomsByHotel(hotelId));
+        return CatalogETags.hotelRooms(hotelId, roomService.getRoomsByHotel(hotelId));
     }
     
     @GetMapping("/hotel/{hotelId}/available")
@@ -37,7 +72,7 @@ public class RoomController {
     
     @GetMapping("/{id}")
     public ResponseEntity<RoomDto> getRoomById(@PathVariable Long id) {
-        return ResponseEntity.ok(roomService.getRoomById(id));
+        return CatalogETags.room(roomService.getRoomById(id));
     }
     
     @PostMapping("/hotel/{hotelId}")
@@ -9,12 +9,17 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
+    /** Термін дії access-токена, секунд. */
+    private long expiresIn;
     private String username;
     private String role;
     private String message;
     
-    public AuthResponse(String token, String username, String role) {
+    public AuthResponse(String token, String refreshToken, long expiresIn, String username, String role) {
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
         this.username = username;
         this.role = role;
         this.message = "Успішна авторизація";
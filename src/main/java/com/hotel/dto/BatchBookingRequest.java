@@ -0,0 +1,31 @@
+package com.hotel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingRequest {
+    
+    @NotNull(message = "Режим обов'язковий")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    
+    @NotEmpty(message = "Список бронювань порожній")
+    @Size(max = 200, message = "Не більше 200 бронювань за запит")
+    private List<@Valid BookingDto> bookings;
+    
+    public enum Mode {
+        /** Жодне бронювання не створюється, якщо хоч одне недійсне. */
+        ALL_OR_NOTHING,
+        /** Створюються всі дійсні бронювання, недійсні повертаються з помилками. */
+        BEST_EFFORT
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingResponse {
+    private List<BookingDto> created = new ArrayList<>();
+    private List<ItemError> errors = new ArrayList<>();
+    
+    /** Помилка окремого бронювання; index - позиція в запиті. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private Long roomId;
+        private String message;
+    }
+}
@@ -26,4 +26,5 @@ public class HotelDto {
     
     private String description;
     private Integer roomCount;
+    private Long version;
 }
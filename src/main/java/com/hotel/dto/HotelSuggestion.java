@@ -0,0 +1,14 @@
+package com.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelSuggestion {
+    private Long id;
+    private String name;
+    private String city;
+}
@@ -0,0 +1,31 @@
+package com.hotel.dto;
+
+import com.hotel.entity.Room;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Рядок імпорту інвентарю (CSV-колонка або NDJSON-поле з тим самим ім'ям).
+ * hotelKey - зовнішній код готелю: поля готелю потрібні лише в першому рядку з цим кодом.
+ * Рядок без roomNumber створює лише готель.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRow {
+    private String hotelKey;
+    private String hotelName;
+    private String address;
+    private String city;
+    private Integer stars;
+    private String hotelDescription;
+    
+    private String roomNumber;
+    private Room.RoomType type;
+    private BigDecimal pricePerNight;
+    private Integer capacity;
+    private String roomDescription;
+    private Boolean available;
+}
@@ -0,0 +1,34 @@
+package com.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportStatus {
+    private String jobId;
+    private State state;
+    /** Останній закомічений рядок файлу; повторне завантаження з тим самим jobId продовжить після нього. */
+    private long checkpoint;
+    private long hotelsCreated;
+    private long roomsCreated;
+    private long errorCount;
+    private List<RowError> errors;
+    private String message;
+    
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotel.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hotel.entity.Room;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -31,4 +32,9 @@ public class RoomDto {
     private Boolean available;
     private Long hotelId;
     private String hotelName;
+    private Long version;
+    
+    /** Версія готелю: назва готелю входить у відповідь, тому впливає на ETag номера. */
+    @JsonIgnore
+    private Long hotelVersion;
 }
@@ -10,14 +10,20 @@ import java.time.temporal.ChronoUnit;
 
 /** Сутність Бронювання.*/
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // Перевірка конфліктів: номер, активний статус і перетин дат
+        @Index(name = "idx_bookings_room_status_dates", columnList = "room_id, status, check_in_date, check_out_date"),
+        @Index(name = "idx_bookings_user", columnList = "user_id"),
+        // Активні інтервали за період (матриця зайнятості)
+        @Index(name = "idx_bookings_dates", columnList = "check_in_date, check_out_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("bookings_seq")
     private Long id;
     
     @Column(nullable = false)
@@ -4,21 +4,33 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Сутність Готель.
+ * Довідкові дані: кешуються в кеші другого рівня Hibernate (регіон hotels, hibernate-cache.conf).
  */
 @Entity
-@Table(name = "hotels")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Hotel.CACHE_REGION)
+@Table(name = "hotels", indexes = {
+        // Пошук готелів: місто з фільтром за зірками, або лише зірки
+        @Index(name = "idx_hotels_city_stars", columnList = "city, stars"),
+        @Index(name = "idx_hotels_stars", columnList = "stars")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Hotel {
     
+    public static final String CACHE_REGION = "hotels";
+    public static final String ROOMS_CACHE_REGION = "hotel-rooms";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("hotels_seq")
     private Long id;
     
     @Column(nullable = false)
@@ -36,9 +48,14 @@ public class Hotel {
     @Column(length = 1000)
     private String description;
     
+    /** Версія для оптимістичного блокування та ETag.*/
+    @Version
+    private Long version;
+    
     /**
-     * Номери готелю (OneToMany).
+     * Номери готелю (OneToMany); кешуються id номерів.
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Hotel.ROOMS_CACHE_REGION)
     @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Room> rooms = new ArrayList<>();
     
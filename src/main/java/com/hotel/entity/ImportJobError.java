@@ -0,0 +1,35 @@
+package com.hotel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+/** Помилка рядка імпорту; зберігаються лише перші import.max-errors.*/
+@Entity
+@Table(name = "import_job_errors")
+@IdClass(ImportJobError.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobError {
+    
+    @Id
+    @Column(length = 100)
+    private String jobId;
+    
+    @Id
+    private long lineNumber;
+    
+    @Column(nullable = false, length = 1000)
+    private String message;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String jobId;
+        private long lineNumber;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotel.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+/** Готель, створений імпортом: зовнішній код готелю з файлу та його id.*/
+@Entity
+@Table(name = "import_job_hotels")
+@IdClass(ImportJobHotel.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobHotel {
+    
+    @Id
+    @Column(length = 100)
+    private String jobId;
+    
+    @Id
+    private String hotelKey;
+    
+    @Column(nullable = false)
+    private Long hotelId;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String jobId;
+        private String hotelKey;
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotel.entity;
+
+import com.hotel.dto.ImportStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/** Збережений стан імпорту інвентарю; контрольна точка й лічильники змінюються в транзакції порції.*/
+@Entity
+@Table(name = "import_jobs", indexes = {
+        // Видалення застарілих імпортів
+        @Index(name = "idx_import_jobs_updated_at", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+public class ImportJobState {
+    
+    @Id
+    @Column(length = 100)
+    private String id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus.State state;
+    
+    @Column(length = 1000)
+    private String message;
+    
+    /** Номер останнього обробленого рядка файлу.*/
+    private long checkpoint;
+    
+    private long hotelsCreated;
+    
+    private long roomsCreated;
+    
+    private long errorCount;
+    
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
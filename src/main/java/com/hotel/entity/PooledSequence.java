@@ -0,0 +1,21 @@
+package com.hotel.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id з послідовності БД з pooled-оптимізатором.
+ * Розмір блоку id задається налаштуванням hotel.id.allocation-size, спільним для всіх сутностей.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+    
+    /** Ім'я послідовності в БД. */
+    String value();
+}
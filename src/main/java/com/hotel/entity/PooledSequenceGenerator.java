@@ -0,0 +1,34 @@
+package com.hotel.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Генератор для {@link PooledSequence}: SequenceStyleGenerator з pooled-оптимізатором.
+ * Hibernate виділяє id блоками, тому id відомий до вставки і вставки групуються в JDBC-пакети,
+ * а до послідовності звертається раз на блок.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    
+    public static final String ALLOCATION_SIZE_SETTING = "hotel.id.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+    
+    public PooledSequenceGenerator(PooledSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        int allocationSize = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        
+        Properties parameters = new Properties();
+        parameters.put(SEQUENCE_PARAM, config.value());
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        // Для анотацій @IdGeneratorType Hibernate не викликає configure() і registerExportables()
+        configure(context.getProperty().getType(), parameters, context.getServiceRegistry());
+        registerExportables(context.getDatabase());
+    }
+}
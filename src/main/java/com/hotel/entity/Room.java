@@ -4,20 +4,30 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
-/** Сутність Номер.*/
+/** Сутність Номер; кешується в регіоні rooms кешу другого рівня.*/
 @Entity
-@Table(name = "rooms")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Room.CACHE_REGION)
+@Table(name = "rooms", indexes = {
+        // Номери готелю та фільтр пошуку готелів за типом і ціною номера
+        @Index(name = "idx_rooms_hotel_type_price", columnList = "hotel_id, type, price_per_night")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Room {
     
+    public static final String CACHE_REGION = "rooms";
+    public static final String BY_HOTEL_QUERY_REGION = "rooms-by-hotel";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("rooms_seq")
     private Long id;
     
     @Column(nullable = false)
@@ -39,6 +49,10 @@ public class Room {
     @Column(nullable = false)
     private Boolean available = true;
     
+    /** Версія для оптимістичного блокування.*/
+    @Version
+    private Long version;
+    
     /** Готель*/
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hotel_id", nullable = false)
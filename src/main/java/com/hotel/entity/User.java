@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -16,7 +17,7 @@ import java.util.Set;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("users_seq")
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -39,6 +40,9 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.USER;
     
+    /** Токени, видані раніше цього моменту, відкликані.*/
+    private Instant tokensValidAfter;
+    
     /**Бронювання користувача. */
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private Set<Booking> bookings = new HashSet<>();
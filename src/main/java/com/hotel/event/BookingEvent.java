@@ -0,0 +1,27 @@
+package com.hotel.event;
+
+import com.hotel.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Подія життєвого циклу бронювання для журналу аудиту.
+ * actor - хто виконав дію (власник бронювання або адміністратор).
+ */
+public record BookingEvent(Type type, Instant timestamp, String actor, Long bookingId, Long roomId, Long userId,
+                           LocalDate checkInDate, LocalDate checkOutDate, BigDecimal totalPrice) {
+    
+    public enum Type {
+        CREATED,
+        CANCELLED,
+        DELETED
+    }
+    
+    /** Id користувача й номера беруться з проксі без їх завантаження. */
+    public static BookingEvent of(Type type, String actor, Booking booking) {
+        return new BookingEvent(type, Instant.now(), actor, booking.getId(), booking.getRoom().getId(),
+                booking.getUser().getId(), booking.getCheckInDate(), booking.getCheckOutDate(), booking.getTotalPrice());
+    }
+}
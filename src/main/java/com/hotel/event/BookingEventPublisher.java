@@ -0,0 +1,168 @@
+package com.hotel.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронний журнал подій бронювання.
+ * Потік запиту лише кладе подію в кільцевий буфер (без блокувань і вводу-виводу);
+ * окремий потік-записувач пачками серіалізує події в NDJSON, дописує їх у MappedEventLog
+ * і скидає на диск один раз на пачку. Коли буфер порожній, записувач спить flush-interval,
+ * тож подія потрапляє на диск не пізніше ніж через цей інтервал.
+ * Переповнений буфер не гальмує бронювання: подія відкидається й рахується
+ * в booking.events.dropped. При зупинці застосунку буфер дописується до кінця.
+ */
+@Component
+public class BookingEventPublisher implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BookingEventPublisher.class);
+    private static final String SEGMENT_PREFIX = "booking-events";
+    private static final int BATCH_SIZE = 1024;
+    
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long flushIntervalNanos;
+    private final EventRingBuffer<BookingEvent> buffer;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    
+    private MappedEventLog log;
+    private Thread writer;
+    private volatile boolean running;
+    
+    public BookingEventPublisher(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${booking.events.enabled:true}") boolean enabled,
+                                 @Value("${booking.events.dir:events}") Path directory,
+                                 @Value("${booking.events.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${booking.events.max-segments:0}") int maxSegments,
+                                 @Value("${booking.events.buffer-size:8192}") int bufferSize,
+                                 @Value("${booking.events.flush-interval:200ms}") Duration flushInterval) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.maxSegments = maxSegments;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new EventRingBuffer<>(bufferSize);
+        this.dropped = eventCounter(meterRegistry, "booking.events.dropped", "Booking events dropped because the event buffer was full");
+        this.written = eventCounter(meterRegistry, "booking.events.written", "Booking events appended to the event log");
+        this.failed = eventCounter(meterRegistry, "booking.events.failed", "Booking events lost because the event log write failed");
+        Gauge.builder("booking.events.buffered", buffer, EventRingBuffer::size)
+                .description("Booking events waiting in the buffer for the writer thread")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Викликається після коміту транзакції; ніколи не блокує.
+     */
+    public void publish(BookingEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            log = new MappedEventLog(directory, SEGMENT_PREFIX, segmentSize, maxSegments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open booking event log in " + directory.toAbsolutePath(), e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "booking-events-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Booking event log: {}", log.currentSegment().toAbsolutePath());
+    }
+    
+    /**
+     * Записувач дописує все, що вже в буфері, і закриває сегмент.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /** Зупиняється після веб-сервера, щоб не втратити події останніх запитів. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void writeLoop() {
+        List<BookingEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            if (buffer.drain(batch::add, BATCH_SIZE) == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+        }
+        while (buffer.drain(batch::add, BATCH_SIZE) > 0) {
+            write(batch);
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.error("Failed to close booking event log", e);
+        }
+    }
+    
+    private void write(List<BookingEvent> batch) {
+        for (BookingEvent event : batch) {
+            try {
+                log.append(objectMapper.writeValueAsBytes(event));
+                written.increment();
+            } catch (IOException e) {
+                failed.increment();
+                logger.error("Failed to write booking event {} for booking {}", event.type(), event.bookingId(), e);
+            }
+        }
+        log.flush();
+        batch.clear();
+    }
+    
+    private static Counter eventCounter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name).description(description).register(meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.hotel.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Кільцевий буфер без блокувань: багато записувачів, один читач.
+ * Записувач займає номер слота через CAS і публікує його, записавши номер у published;
+ * читач забирає слоти по порядку, доки номер опублікований. Переповнений буфер не блокує
+ * записувача - offer повертає false, і подію можна порахувати як втрачену.
+ */
+final class EventRingBuffer<T> {
+    
+    private final Object[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    
+    EventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+    
+    boolean offer(T item) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        int index = (int) (sequence & mask);
+        slots[index] = item;
+        published.set(index, sequence);
+        return true;
+    }
+    
+    /** Лише для потоку-читача. Повертає кількість забраних елементів. */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<T> consumer, int limit) {
+        long next = head;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            T item = (T) slots[index];
+            slots[index] = null;
+            next++;
+            drained++;
+            consumer.accept(item);
+        }
+        head = next;
+        return drained;
+    }
+    
+    int size() {
+        return (int) (tail.get() - head);
+    }
+    
+    int capacity() {
+        return slots.length;
+    }
+}
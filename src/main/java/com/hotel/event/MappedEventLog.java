@@ -0,0 +1,132 @@
+package com.hotel.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only журнал у сегментах фіксованого розміру, відображених у пам'ять.
+ * Запис - копіювання в MappedByteBuffer без системного виклику, force() скидає сторінки на диск.
+ * Коли запис не вміщається, сегмент обрізається до фактичної довжини й відкривається наступний;
+ * понад maxSegments найстаріші сегменти видаляються (0 - зберігати всі).
+ * Після аварійного завершення хвіст останнього сегмента заповнений нульовими байтами.
+ * Не потокобезпечний: використовується лише потоком-записувачем.
+ */
+final class MappedEventLog implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MappedEventLog.class);
+    
+    private final Path directory;
+    private final String prefix;
+    private final Pattern segmentName;
+    private final int segmentSize;
+    private final int maxSegments;
+    
+    private long segmentIndex;
+    private Path segmentPath;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+    
+    MappedEventLog(Path directory, String prefix, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentName = Pattern.compile(Pattern.quote(prefix) + "-(\\d+)\\.ndjson");
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        this.segmentIndex = segments().stream().mapToLong(this::indexOf).max().orElse(0);
+        openNextSegment();
+    }
+    
+    /** Дописує запис і перевод рядка; запис, більший за сегмент, відхиляється. */
+    void append(byte[] record) throws IOException {
+        int length = record.length + 1;
+        if (length > segmentSize) {
+            throw new IOException("Event of " + record.length + " bytes exceeds segment size " + segmentSize);
+        }
+        if (buffer.remaining() < length) {
+            closeSegment();
+            openNextSegment();
+        }
+        buffer.put(record).put((byte) '\n');
+        dirty = true;
+    }
+    
+    void flush() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+    
+    Path currentSegment() {
+        return segmentPath;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+    
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        segmentPath = directory.resolve(String.format("%s-%06d.ndjson", prefix, segmentIndex));
+        channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        dirty = false;
+        logger.info("Event log segment opened: {}", segmentPath);
+        deleteOldSegments();
+    }
+    
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        int written = buffer.position();
+        buffer = null;
+        try {
+            channel.truncate(written);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+    
+    private void deleteOldSegments() throws IOException {
+        if (maxSegments <= 0) {
+            return;
+        }
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+            logger.info("Event log segment deleted: {}", segments.get(i));
+        }
+    }
+    
+    /** Сегменти за зростанням номера. */
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> segmentName.matcher(path.getFileName().toString()).matches())
+                    .sorted((a, b) -> Long.compare(indexOf(a), indexOf(b)))
+                    .toList();
+        }
+    }
+    
+    private long indexOf(Path segment) {
+        Matcher matcher = segmentName.matcher(segment.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.hotel.repository;
+
+import java.time.LocalDate;
+
+/** Проєкція інтервалу бронювання (без завантаження сутностей). */
+public record BookingInterval(Long bookingId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+}
@@ -1,16 +1,34 @@
 package com.hotel.repository;
 
 import com.hotel.entity.Booking;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    String VIEW_SELECT = "SELECT new com.hotel.repository.BookingView(b.id, r.id, b.checkInDate, b.checkOutDate, " +
+                         "b.totalPrice, b.status, u.fullName, r.roomNumber, h.name) " +
+                         "FROM Booking b JOIN b.user u JOIN b.room r JOIN r.hotel h ";
+    
+    /**
+     * Активні бронювання - перелік статусів, а не status != 'CANCELLED': нерівність не обмежує
+     * діапазон індексу, і за room_id планувальник обирав індекс зовнішнього ключа замість idx_bookings_room_status_dates.
+     */
+    String ACTIVE = "b.status IN ('CONFIRMED', 'COMPLETED') ";
+    
     List<Booking> findByUserId(Long userId);
     
     List<Booking> findByRoomId(Long roomId);
@@ -19,11 +37,46 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByHotelId(@Param("hotelId") Long hotelId);
     
     @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId " +
-           "AND b.status != 'CANCELLED' " +
+           "AND " + ACTIVE +
            "AND ((b.checkInDate <= :checkOut AND b.checkOutDate >= :checkIn))")
     List<Booking> findConflictingBookings(
             @Param("roomId") Long roomId,
             @Param("checkIn") LocalDate checkIn,
             @Param("checkOut") LocalDate checkOut
     );
+    
+    @Query("SELECT new com.hotel.repository.BookingInterval(b.id, b.room.id, b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b WHERE " + ACTIVE)
+    List<BookingInterval> findActiveIntervals();
+    
+    @Query(VIEW_SELECT + "WHERE b.id = :id")
+    Optional<BookingView> findViewById(@Param("id") Long id);
+    
+    @Query(VIEW_SELECT + "ORDER BY b.id")
+    List<BookingView> findAllViews();
+    
+    @Query(VIEW_SELECT + "WHERE b.id > :after ORDER BY b.id")
+    List<BookingView> findViewPage(@Param("after") Long after, Limit limit);
+    
+    @Query(VIEW_SELECT + "ORDER BY b.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingView> streamAllViews();
+    
+    @Query(VIEW_SELECT + "WHERE u.username = :username ORDER BY b.id")
+    List<BookingView> findViewsByUsername(@Param("username") String username);
+    
+    @Query(VIEW_SELECT + "WHERE h.id = :hotelId ORDER BY b.id")
+    List<BookingView> findViewsByHotelId(@Param("hotelId") Long hotelId);
+    
+    @Query("SELECT new com.hotel.repository.BookingInterval(b.id, b.room.id, b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b WHERE " + ACTIVE +
+           "AND b.checkInDate <= :to AND b.checkOutDate >= :from")
+    List<BookingInterval> findActiveIntervalsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /** Активні бронювання кількох номерів у межах періоду - одна перевірка конфліктів для пакета. */
+    @Query("SELECT new com.hotel.repository.BookingInterval(b.id, b.room.id, b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b WHERE b.room.id IN :roomIds AND " + ACTIVE +
+           "AND b.checkInDate <= :to AND b.checkOutDate >= :from")
+    List<BookingInterval> findActiveIntervalsForRooms(@Param("roomIds") Collection<Long> roomIds,
+                                                      @Param("from") LocalDate from, @Param("to") LocalDate to);
 }
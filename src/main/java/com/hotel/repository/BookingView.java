@@ -0,0 +1,12 @@
+package com.hotel.repository;
+
+import com.hotel.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Плоска проєкція бронювання з даними користувача, номера й готелю (один JOIN-запит). */
+public record BookingView(Long id, Long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                          BigDecimal totalPrice, Booking.BookingStatus status,
+                          String userName, String roomNumber, String hotelName) {
+}
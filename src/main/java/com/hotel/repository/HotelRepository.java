@@ -1,12 +1,34 @@
 package com.hotel.repository;
 
 import com.hotel.entity.Hotel;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface HotelRepository extends JpaRepository<Hotel, Long> {
+public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecificationExecutor<Hotel> {
     List<Hotel> findByCity(String city);
     List<Hotel> findByStars(Integer stars);
+    
+    List<Hotel> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    @Query("SELECT h FROM Hotel h ORDER BY h.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Hotel> streamAll();
+    
+    @Query("SELECT new com.hotel.repository.HotelText(h.id, h.name, h.city, h.description) FROM Hotel h")
+    List<HotelText> findAllTexts();
+    
+    @Query("SELECT new com.hotel.repository.HotelText(h.id, h.name, h.city, h.description) FROM Hotel h WHERE h.id IN :ids")
+    List<HotelText> findTextsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,68 @@
+package com.hotel.repository;
+
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Умови пошуку готелів. Місто й зірки порівнюються точно, щоб працював індекс idx_hotels_city_stars;
+ * фільтр за номерами - підзапит EXISTS по idx_rooms_hotel_type_price, тож готель не дублюється.
+ */
+public final class HotelSpecifications {
+    
+    private HotelSpecifications() {
+    }
+    
+    /** Умови з null не застосовуються. */
+    public static Specification<Hotel> search(String city, Integer stars, BigDecimal minPrice, BigDecimal maxPrice,
+                                              Room.RoomType roomType, Long after) {
+        return Specification.where(after(after))
+                .and(inCity(city))
+                .and(hasStars(stars))
+                .and(hasRoom(roomType, minPrice, maxPrice));
+    }
+    
+    public static Specification<Hotel> after(Long after) {
+        return after == null ? null : (hotel, query, cb) -> cb.greaterThan(hotel.get("id"), after);
+    }
+    
+    public static Specification<Hotel> inCity(String city) {
+        return city == null ? null : (hotel, query, cb) -> cb.equal(hotel.get("city"), city);
+    }
+    
+    public static Specification<Hotel> hasStars(Integer stars) {
+        return stars == null ? null : (hotel, query, cb) -> cb.equal(hotel.get("stars"), stars);
+    }
+    
+    /** Готель має доступний номер заданого типу з ціною за ніч у межах [minPrice, maxPrice]. */
+    public static Specification<Hotel> hasRoom(Room.RoomType type, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (type == null && minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return (hotel, query, cb) -> {
+            Subquery<Long> rooms = query.subquery(Long.class);
+            Root<Room> room = rooms.from(Room.class);
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(room.get("hotel"), hotel));
+            predicates.add(cb.isTrue(room.get("available")));
+            if (type != null) {
+                predicates.add(cb.equal(room.get("type"), type));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(room.get("pricePerNight"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(room.get("pricePerNight"), maxPrice));
+            }
+            rooms.select(room.get("id")).where(predicates.toArray(Predicate[]::new));
+            return cb.exists(rooms);
+        };
+    }
+}
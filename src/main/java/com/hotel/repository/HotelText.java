@@ -0,0 +1,5 @@
+package com.hotel.repository;
+
+/** Проєкція текстових полів готелю для індексу підказок. */
+public record HotelText(Long id, String name, String city, String description) {
+}
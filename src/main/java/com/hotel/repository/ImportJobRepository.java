@@ -0,0 +1,34 @@
+package com.hotel.repository;
+
+import com.hotel.entity.ImportJobError;
+import com.hotel.entity.ImportJobHotel;
+import com.hotel.entity.ImportJobState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJobState, String> {
+    
+    @Query("SELECT h FROM ImportJobHotel h WHERE h.jobId = :jobId")
+    List<ImportJobHotel> findHotels(@Param("jobId") String jobId);
+    
+    @Query("SELECT e FROM ImportJobError e WHERE e.jobId = :jobId ORDER BY e.lineNumber")
+    List<ImportJobError> findErrors(@Param("jobId") String jobId);
+    
+    @Query("SELECT j.id FROM ImportJobState j WHERE j.updatedAt < :before")
+    List<String> findIdsUpdatedBefore(@Param("before") Instant before);
+    
+    @Modifying
+    @Query("DELETE FROM ImportJobHotel h WHERE h.jobId IN :jobIds")
+    void deleteHotels(@Param("jobIds") Collection<String> jobIds);
+    
+    @Modifying
+    @Query("DELETE FROM ImportJobError e WHERE e.jobId IN :jobIds")
+    void deleteErrors(@Param("jobIds") Collection<String> jobIds);
+}
@@ -0,0 +1,7 @@
+package com.hotel.repository;
+
+import com.hotel.entity.Room;
+
+/** Проєкція атрибутів номера для пошуку за зайнятістю. */
+public record RoomAttributes(Long roomId, String city, Room.RoomType type, Integer capacity, Boolean available) {
+}
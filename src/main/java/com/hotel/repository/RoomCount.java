@@ -0,0 +1,5 @@
+package com.hotel.repository;
+
+/** Проєкція: кількість номерів готелю. */
+public record RoomCount(Long hotelId, Long count) {
+}
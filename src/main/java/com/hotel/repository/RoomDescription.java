@@ -0,0 +1,5 @@
+package com.hotel.repository;
+
+/** Проєкція: опис номера з id готелю. */
+public record RoomDescription(Long hotelId, String description) {
+}
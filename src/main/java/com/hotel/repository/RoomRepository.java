@@ -1,13 +1,76 @@
 package com.hotel.repository;
 
 import com.hotel.entity.Room;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
+    // Кеш запитів: id номерів готелю; скидається Hibernate при будь-якій зміні таблиці rooms
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = Room.BY_HOTEL_QUERY_REGION)})
     List<Room> findByHotelId(Long hotelId);
     List<Room> findByHotelIdAndAvailableTrue(Long hotelId);
     List<Room> findByAvailableTrue();
+    
+    long countByHotelId(Long hotelId);
+    
+    @Query("SELECT new com.hotel.repository.RoomCount(r.hotel.id, COUNT(r)) FROM Room r " +
+           "WHERE r.hotel.id IN :hotelIds GROUP BY r.hotel.id")
+    List<RoomCount> countByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+    
+    @Query("SELECT new com.hotel.repository.RoomCount(r.hotel.id, COUNT(r)) FROM Room r GROUP BY r.hotel.id")
+    List<RoomCount> countAllByHotel();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Room> findWithLockById(Long id);
+    
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<Room> findWithVersionIncrementById(Long id);
+    
+    // Блокування в порядку id, щоб пакетні бронювання не взаємоблокувались
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id IN :ids ORDER BY r.id")
+    List<Room> findAllWithLockByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT r FROM Room r WHERE r.id IN :ids ORDER BY r.id")
+    List<Room> findAllWithVersionIncrementByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT r FROM Room r JOIN FETCH r.hotel WHERE r.available = true AND r.id > :after ORDER BY r.id")
+    List<Room> findAvailablePage(@Param("after") Long after, Limit limit);
+    
+    @Query("SELECT r FROM Room r JOIN FETCH r.hotel WHERE r.available = true ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Room> streamAvailable();
+    
+    @Query("SELECT r FROM Room r JOIN FETCH r.hotel WHERE r.id IN :ids ORDER BY r.id")
+    List<Room> findAllWithHotelByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.hotel.repository.RoomAttributes(r.id, h.city, r.type, r.capacity, r.available) " +
+           "FROM Room r JOIN r.hotel h")
+    List<RoomAttributes> findAllAttributes();
+    
+    @Query("SELECT new com.hotel.repository.RoomDescription(r.hotel.id, r.description) FROM Room r " +
+           "WHERE r.description IS NOT NULL")
+    List<RoomDescription> findAllDescriptions();
+    
+    @Query("SELECT new com.hotel.repository.RoomDescription(r.hotel.id, r.description) FROM Room r " +
+           "WHERE r.hotel.id IN :hotelIds AND r.description IS NOT NULL")
+    List<RoomDescription> findDescriptionsByHotelIdIn(@Param("hotelIds") Collection<Long> hotelIds);
 }
@@ -0,0 +1,7 @@
+package com.hotel.repository;
+
+import java.time.Instant;
+
+/** Проєкція: токени користувача, видані до вказаного моменту, недійсні. */
+public record TokenRevocation(String username, Instant tokensValidAfter) {
+}
@@ -2,7 +2,9 @@ package com.hotel.repository;
 
 import com.hotel.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +12,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+    
+    @Query("SELECT new com.hotel.repository.TokenRevocation(u.username, u.tokensValidAfter) " +
+           "FROM User u WHERE u.tokensValidAfter IS NOT NULL")
+    List<TokenRevocation> findTokenRevocations();
 }
@@ -1,33 +1,101 @@
 package com.hotel.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.hotel.entity.User;
 import com.hotel.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
 
+/**
+ * Завантаження користувачів для Spring Security з in-process кешем.
+ * Кешуються лише незмінні дані (username, хеш пароля, роль), а UserDetails створюється заново,
+ * бо ProviderManager стирає пароль у виданому об'єкті після автентифікації.
+ */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
     
     private final UserRepository userRepository;
+    private final Cache<String, CachedUser> cache;
     
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.user-cache.ttl:5m}") Duration ttl,
+                                    MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
     }
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        CachedUser user = cache.get(username, this::loadFromDatabase);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
         
         return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                user.username(),
+                user.password(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role().name()))
         );
     }
+    
+    /**
+     * Збереження перехешованого пароля, коли складність BCrypt зросла.
+     * Викликається DaoAuthenticationProvider після успішного логіну.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        evict(user.getUsername());
+        logger.info("Password hash upgraded for user: {}", user.getUsername());
+        return loadUserByUsername(user.getUsername());
+    }
+    
+    /** Інвалідація після реєстрації або зміни ролі чи пароля користувача. */
+    public void evict(String username) {
+        cache.invalidate(username);
+        logger.debug("User cache evicted: {}", username);
+    }
+    
+    /** Статистика кешу: hits, misses, evictions. */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    public long size() {
+        return cache.estimatedSize();
+    }
+    
+    private CachedUser loadFromDatabase(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new CachedUser(user.getUsername(), user.getPassword(), user.getRole()))
+                .orElse(null);
+    }
+    
+    private record CachedUser(String username, String password, User.Role role) {
+    }
 }
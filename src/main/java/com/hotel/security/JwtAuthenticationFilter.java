@@ -1,16 +1,23 @@
 package com.hotel.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,10 +31,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final boolean stateless;
     
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    /** Відхилені токени за причиною: expired, invalid, revoked, unknown_user, error. */
+    private final Counter expiredTokens;
+    private final Counter invalidTokens;
+    private final Counter revokedTokens;
+    private final Counter unknownUsers;
+    private final Counter errors;
+    
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   TokenRevocationRegistry revocationRegistry,
+                                   @Value("${jwt.stateless:false}") boolean stateless,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.stateless = stateless;
+        this.expiredTokens = failureCounter(meterRegistry, "expired");
+        this.invalidTokens = failureCounter(meterRegistry, "invalid");
+        this.revokedTokens = failureCounter(meterRegistry, "revoked");
+        this.unknownUsers = failureCounter(meterRegistry, "unknown_user");
+        this.errors = failureCounter(meterRegistry, "error");
     }
     
     @Override
@@ -50,12 +76,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String jwt = authHeader.substring(7);
         
         try {
-            final String username = jwtService.extractUsername(jwt);
+            // Один розбір і перевірка підпису на запит
+            final JwtClaims claims = jwtService.verify(jwt);
+            final String username = claims.username();
             
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (revocationRegistry.isRevoked(claims)) {
+                revokedTokens.increment();
+                logger.debug("Revoked token for user: {}", username);
+            } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = loadUserDetails(claims);
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities()
                     );
@@ -65,10 +96,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     logger.debug("User authenticated: {}", username);
                 }
             }
+        } catch (ExpiredJwtException e) {
+            expiredTokens.increment();
+            logger.error("JWT Authentication error: {}", e.getMessage());
+        } catch (JwtException e) {
+            invalidTokens.increment();
+            logger.error("JWT Authentication error: {}", e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            unknownUsers.increment();
+            logger.error("JWT Authentication error: {}", e.getMessage());
         } catch (Exception e) {
+            errors.increment();
             logger.error("JWT Authentication error: {}", e.getMessage());
         }
         
         filterChain.doFilter(request, response);
     }
+    
+    private static Counter failureCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("jwt.authentication.failures")
+                .description("Bearer tokens that did not authenticate the request")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * У stateless режимі користувач будується з перевірених claims без запиту до БД.
+     */
+    private UserDetails loadUserDetails(JwtClaims claims) {
+        if (stateless && claims.role() != null) {
+            return User.withUsername(claims.username())
+                    .password("")
+                    .authorities(claims.role())
+                    .build();
+        }
+        return userDetailsService.loadUserByUsername(claims.username());
+    }
 }
@@ -0,0 +1,11 @@
+package com.hotel.security;
+
+import java.time.Instant;
+
+/** Перевірені claims JWT токена. */
+public record JwtClaims(String username, String role, Instant issuedAt, Instant expiresAt) {
+    
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.security;
+
+import com.hotel.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt на окремому обмеженому пулі потоків.
+ * Кількість одночасних хешувань не перевищує кількість потоків пулу, тож шквал логінів
+ * не забирає CPU у дешевих запитів каталогу; при переповненій черзі запит відхиляється з 429.
+ * Метрики: security.password (час з очікуванням у черзі, тег operation), security.password.rejected
+ * та заповненість пулу (executor.* з тегом name=bcrypt).
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+    
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    
+    public OffloadingPasswordEncoder(int strength, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = passwordTimer(meterRegistry, "encode");
+        this.matchesTimer = passwordTimer(meterRegistry, "matches");
+        this.rejected = Counter.builder("security.password.rejected")
+                .description("Password hashing requests rejected because the bcrypt queue is full")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "bcrypt", List.of()).bindTo(meterRegistry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+    
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    private static Timer passwordTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("security.password")
+                .description("BCrypt hashing time including the wait in the bcrypt queue")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+    
+    private <T> T execute(Timer timer, Callable<T> task) {
+        long start = System.nanoTime();
+        try {
+            T result = executor.submit(task).get();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Забагато запитів автентифікації, повторіть спробу пізніше");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password hashing interrupted", e);
+        }
+    }
+}
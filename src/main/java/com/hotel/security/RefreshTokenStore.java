@@ -0,0 +1,510 @@
+package com.hotel.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory сховище refresh-токенів.
+ * Токен має вигляд "id.secret": випадковий 64-бітний id - ключ хеш-таблиці з відкритою адресацією
+ * на масивах примітивів, секрет не зберігається - лише перші 128 біт його SHA-256.
+ * Токен прив'язаний до id користувача, а не до імені: ім'я видаленого користувача може отримати інший.
+ * Токен одноразовий: consume() видаляє його, і на refresh видається новий (ротація).
+ * <p>
+ * Якщо задано jwt.refresh.snapshot, кожна видача й видалення дописуються рядком у журнал (append-only);
+ * при старті журнал програється, прострочені записи пропускаються. Таблиця змінюється під ReentrantLock,
+ * а у файл пише один потік-записувач: записи стають у чергу в порядку змін таблиці й скидаються
+ * пачками, тож вхід і refresh не чекають один на одного на вводі-виводі.
+ * Видалення (refresh, відкликання) чекає запису у файл поза блокуванням: якщо запис не вдався,
+ * викликач отримує помилку, бо інакше токен "ожив" би після перезапуску.
+ * Прибирання за розкладом видаляє прострочені токени й переписує журнал, коли мертвих записів
+ * у ньому більше, ніж живих. Перевірка access-токенів на кожному запиті сховища не торкається.
+ */
+@Component
+public class RefreshTokenStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+    private static final int SECRET_BYTES = 32;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Журнал не переписується, поки в ньому менше записів. */
+    private static final long MIN_COMPACTION_RECORDS = 1024;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final JournalTask STOP = new JournalTask(null, null, null);
+    
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlMillis;
+    /** null - лише в пам'яті. */
+    private final Path snapshot;
+    private final Counter journalFailures;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Під lock. Комірка i вільна, якщо ids[i] == 0; довжина масивів - степінь двійки, заповнення не більше половини
+    private long[] ids;
+    private long[] hashHigh;
+    private long[] hashLow;
+    private long[] expiresAt;
+    private long[] userIds;
+    private int size;
+    
+    // Журнал: чергу наповнюють під lock, файлом володіє лише потік-записувач
+    private final BlockingQueue<JournalTask> pending = new LinkedBlockingQueue<>();
+    private Thread writer;
+    private BufferedWriter journal;
+    private volatile long journalRecords;
+    
+    /** Рядок журналу або, якщо records != null, заміна журналу знімком живих токенів. */
+    private record JournalTask(String record, List<String> records, CompletableFuture<Void> written) {
+    }
+    
+    public RefreshTokenStore(@Value("${jwt.refresh.expiration:1209600000}") long ttlMillis,
+                             @Value("${jwt.refresh.snapshot:}") String snapshot,
+                             MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlMillis;
+        this.snapshot = snapshot.isBlank() ? null : Path.of(snapshot);
+        allocate(INITIAL_CAPACITY);
+        Gauge.builder("jwt.refresh.tokens", this, RefreshTokenStore::size)
+                .description("Live refresh tokens in the in-memory store")
+                .register(meterRegistry);
+        this.journalFailures = Counter.builder("jwt.refresh.journal.failures")
+                .description("Refresh token journal writes that failed")
+                .register(meterRegistry);
+    }
+    
+    /** Відновлення з журналу; журнал одразу переписується лише живими токенами. */
+    @PostConstruct
+    void load() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            if (Files.exists(snapshot)) {
+                replay();
+            }
+            rewrite(liveRecords());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open refresh token snapshot " + snapshot.toAbsolutePath(), e);
+        }
+        writer = new Thread(this::writeLoop, "refresh-token-journal");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Refresh tokens loaded: {} from {}", size, snapshot.toAbsolutePath());
+    }
+    
+    /** Записувач дописує всю чергу й закриває журнал. */
+    @PreDestroy
+    void close() {
+        if (writer == null) {
+            return;
+        }
+        pending.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+    
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Новий refresh-токен користувача. Запис у журнал не очікується:
+     * якщо він не вдасться, токен лише не переживе перезапуск.
+     */
+    public String issue(long userId) {
+        byte[] secret = new byte[SECRET_BYTES];
+        random.nextBytes(secret);
+        ByteBuffer hash = ByteBuffer.wrap(sha256(secret));
+        long high = hash.getLong();
+        long low = hash.getLong();
+        long expires = System.currentTimeMillis() + ttlMillis;
+        long id;
+        lock.lock();
+        try {
+            do {
+                id = random.nextLong();
+            } while (id == 0 || indexOf(id) >= 0);
+            put(id, high, low, expires, userId);
+            append(issuedRecord(id, high, low, expires, userId));
+        } finally {
+            lock.unlock();
+        }
+        return Long.toHexString(id) + '.' + ENCODER.encodeToString(secret);
+    }
+    
+    /**
+     * Одноразове використання токена: дійсний токен видаляється, повертається id власника.
+     * Невідомий, підроблений або прострочений токен - порожній результат.
+     * @throws IllegalStateException якщо видалення не вдалося записати в журнал
+     */
+    public OptionalLong consume(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return OptionalLong.empty();
+        }
+        long id;
+        byte[] secret;
+        try {
+            id = Long.parseUnsignedLong(token, 0, dot, 16);
+            secret = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+        if (id == 0 || secret.length != SECRET_BYTES) {
+            return OptionalLong.empty();
+        }
+        ByteBuffer hash = ByteBuffer.wrap(sha256(secret));
+        long high = hash.getLong();
+        long low = hash.getLong();
+        long userId;
+        boolean expired;
+        CompletableFuture<Void> written;
+        lock.lock();
+        try {
+            int index = indexOf(id);
+            // Невірний секрет не видаляє токен: інакше чужий токен можна було б "спалити", знаючи лише id
+            if (index < 0 || hashHigh[index] != high || hashLow[index] != low) {
+                return OptionalLong.empty();
+            }
+            userId = userIds[index];
+            expired = expiresAt[index] <= System.currentTimeMillis();
+            removeAt(index);
+            written = append(removedRecord(id));
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+        return expired ? OptionalLong.empty() : OptionalLong.of(userId);
+    }
+    
+    /**
+     * Відкликання всіх refresh-токенів користувача.
+     * @throws IllegalStateException якщо відкликання не вдалося записати в журнал
+     */
+    public int revokeAll(long userId) {
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        lock.lock();
+        try {
+            long[] revoked = new long[size];
+            int count = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != 0 && userIds[i] == userId) {
+                    revoked[count++] = ids[i];
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                removeAt(indexOf(revoked[i]));
+                written.add(append(removedRecord(revoked[i])));
+            }
+        } finally {
+            lock.unlock();
+        }
+        written.forEach(RefreshTokenStore::awaitWritten);
+        return written.size();
+    }
+    
+    /** Видалення прострочених токенів; у журнал не пишеться - при програванні вони й так пропускаються. */
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweep-interval:60000}",
+               initialDelayString = "${jwt.refresh.sweep-interval:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            long[] expired = new long[size];
+            int count = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != 0 && expiresAt[i] <= now) {
+                    expired[count++] = ids[i];
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                removeAt(indexOf(expired[i]));
+            }
+            // Знімок стає в чергу після всіх попередніх змін, тож записи перед ним уже в ньому враховані
+            if (writer != null && journalRecords > Math.max(MIN_COMPACTION_RECORDS, 2L * size)) {
+                pending.add(new JournalTask(null, liveRecords(), new CompletableFuture<>()));
+            }
+            logger.debug("Refresh tokens swept: {} expired, {} live", count, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private CompletableFuture<Void> append(String record) {
+        if (snapshot == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        pending.add(new JournalTask(record, null, written));
+        return written;
+    }
+    
+    private static void awaitWritten(CompletableFuture<Void> written) {
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Refresh token journal write failed", e.getCause());
+        }
+    }
+    
+    /** Усе, що накопичилося в черзі, пишеться пачкою з одним flush. */
+    private void writeLoop() {
+        List<JournalTask> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pending.drainTo(batch);
+            stopping = batch.remove(STOP);
+            write(batch);
+            batch.clear();
+        }
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to close refresh token snapshot", e);
+        }
+    }
+    
+    private void write(List<JournalTask> batch) {
+        List<CompletableFuture<Void>> written = new ArrayList<>(batch.size());
+        for (JournalTask task : batch) {
+            try {
+                if (task.records() != null) {
+                    if (journal != null) {
+                        journal.flush();
+                    }
+                    rewrite(task.records());
+                } else {
+                    // Журнал закритий, якщо після невдалого переписування його не вдалося відкрити знову
+                    if (journal == null) {
+                        throw new IOException("Refresh token journal is not open");
+                    }
+                    journal.write(task.record());
+                    journal.newLine();
+                    journalRecords++;
+                }
+                written.add(task.written());
+            } catch (IOException e) {
+                fail(task.written(), e);
+            }
+        }
+        try {
+            if (journal != null) {
+                journal.flush();
+            }
+            written.forEach(future -> future.complete(null));
+        } catch (IOException e) {
+            written.forEach(future -> fail(future, e));
+        }
+    }
+    
+    private void fail(CompletableFuture<Void> written, IOException e) {
+        journalFailures.increment();
+        logger.error("Failed to write refresh token journal {}", snapshot.toAbsolutePath(), e);
+        written.completeExceptionally(e);
+    }
+    
+    private void replay() throws IOException {
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ");
+                try {
+                    long id = Long.parseUnsignedLong(fields[1], 16);
+                    if (fields[0].equals("+") && fields.length == 6) {
+                        long expires = Long.parseLong(fields[4]);
+                        if (expires > now && indexOf(id) < 0) {
+                            put(id, Long.parseUnsignedLong(fields[2], 16), Long.parseUnsignedLong(fields[3], 16),
+                                    expires, Long.parseLong(fields[5]));
+                        }
+                    } else if (fields[0].equals("-") && fields.length == 2) {
+                        int index = indexOf(id);
+                        if (index >= 0) {
+                            removeAt(index);
+                        }
+                    } else {
+                        logger.warn("Skipping malformed refresh token record: {}", line);
+                    }
+                } catch (RuntimeException e) {
+                    // Обірваний останній рядок після аварійного завершення
+                    logger.warn("Skipping malformed refresh token record: {}", line);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Новий журнал пишеться поруч і атомарно підміняє старий; якщо підміна не вдалася,
+     * запис продовжується в старий.
+     */
+    private void rewrite(List<String> records) throws IOException {
+        Path parent = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(snapshot.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String record : records) {
+                out.write(record);
+                out.newLine();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalRecords = records.size();
+        } finally {
+            journal = Files.newBufferedWriter(snapshot, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+    
+    private List<String> liveRecords() {
+        List<String> records = new ArrayList<>(size);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                records.add(issuedRecord(ids[i], hashHigh[i], hashLow[i], expiresAt[i], userIds[i]));
+            }
+        }
+        return records;
+    }
+    
+    private static String issuedRecord(long id, long high, long low, long expires, long userId) {
+        return "+ " + Long.toHexString(id) + ' ' + Long.toHexString(high) + ' ' + Long.toHexString(low)
+                + ' ' + expires + ' ' + userId;
+    }
+    
+    private static String removedRecord(long id) {
+        return "- " + Long.toHexString(id);
+    }
+    
+    private int indexOf(long id) {
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); ids[i] != 0; i = (i + 1) & mask) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void put(long id, long high, long low, long expires, long userId) {
+        if (2 * (size + 1) > ids.length) {
+            resize(ids.length * 2);
+        }
+        int mask = ids.length - 1;
+        int i = slot(id, mask);
+        while (ids[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        hashHigh[i] = high;
+        hashLow[i] = low;
+        expiresAt[i] = expires;
+        userIds[i] = userId;
+        size++;
+    }
+    
+    /** Видалення зі зсувом наступних записів ланцюжка назад, без надгробків. */
+    private void removeAt(int index) {
+        int mask = ids.length - 1;
+        int hole = index;
+        for (int i = (index + 1) & mask; ids[i] != 0; i = (i + 1) & mask) {
+            int home = slot(ids[i], mask);
+            // Запис можна перенести в дірку, якщо його домашня комірка не лежить між діркою та ним
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                ids[hole] = ids[i];
+                hashHigh[hole] = hashHigh[i];
+                hashLow[hole] = hashLow[i];
+                expiresAt[hole] = expiresAt[i];
+                userIds[hole] = userIds[i];
+                hole = i;
+            }
+        }
+        ids[hole] = 0;
+        size--;
+    }
+    
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        long[] oldHigh = hashHigh;
+        long[] oldLow = hashLow;
+        long[] oldExpires = expiresAt;
+        long[] oldUserIds = userIds;
+        allocate(capacity);
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) {
+                put(oldIds[i], oldHigh[i], oldLow[i], oldExpires[i], oldUserIds[i]);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        hashHigh = new long[capacity];
+        hashLow = new long[capacity];
+        expiresAt = new long[capacity];
+        userIds = new long[capacity];
+        size = 0;
+    }
+    
+    private static int slot(long id, int mask) {
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+    }
+    
+    private static byte[] sha256(byte[] secret) {
+        try {
+            return Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(secret), 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
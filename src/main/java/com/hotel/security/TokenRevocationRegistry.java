@@ -0,0 +1,59 @@
+package com.hotel.security;
+
+import com.hotel.repository.TokenRevocation;
+import com.hotel.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory реєстр відкликаних токенів ("токени, видані до моменту X, недійсні").
+ * Періодично оновлюється з БД, тому перевірка на кожному запиті не звертається до БД.
+ */
+@Component
+public class TokenRevocationRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+    
+    private final UserRepository userRepository;
+    private volatile Map<String, Instant> validAfter = new ConcurrentHashMap<>();
+    
+    public TokenRevocationRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:30000}",
+               initialDelayString = "${jwt.revocation.refresh-interval:30000}")
+    public void refresh() {
+        Map<String, Instant> loaded = userRepository.findTokenRevocations().stream()
+                .collect(Collectors.toConcurrentMap(TokenRevocation::username, TokenRevocation::tokensValidAfter));
+        // Локальні відкликання, ще не видимі в БД, не губляться
+        validAfter.forEach((username, after) -> loaded.merge(username, after, (a, b) -> a.isAfter(b) ? a : b));
+        validAfter = loaded;
+        logger.debug("Token revocations refreshed: {}", loaded.size());
+    }
+    
+    public boolean isRevoked(JwtClaims claims) {
+        Instant after = validAfter.get(claims.username());
+        return after != null && (claims.issuedAt() == null || claims.issuedAt().isBefore(after));
+    }
+    
+    /**
+     * Відкликання всіх токенів користувача, виданих до поточного моменту.
+     * iat у JWT має точність до секунди, тому момент округлюється до секунди.
+     */
+    public Instant revoke(String username) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        validAfter.put(username, now);
+        return now;
+    }
+}
@@ -2,17 +2,22 @@ package com.hotel.service;
 
 import com.hotel.dto.AuthResponse;
 import com.hotel.dto.LoginRequest;
+import com.hotel.dto.RefreshTokenRequest;
 import com.hotel.dto.RegisterRequest;
 import com.hotel.entity.User;
 import com.hotel.exception.BadRequestException;
+import com.hotel.exception.ResourceNotFoundException;
+import com.hotel.exception.UnauthorizedException;
 import com.hotel.repository.UserRepository;
+import com.hotel.security.CustomUserDetailsService;
 import com.hotel.security.JwtService;
+import com.hotel.security.RefreshTokenStore;
+import com.hotel.security.TokenRevocationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,16 +32,21 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final RefreshTokenStore refreshTokenStore;
     
     public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
                       JwtService jwtService, AuthenticationManager authenticationManager,
-                      UserDetailsService userDetailsService) {
+                      CustomUserDetailsService userDetailsService, TokenRevocationRegistry revocationRegistry,
+                      RefreshTokenStore refreshTokenStore) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.refreshTokenStore = refreshTokenStore;
     }
     
     public AuthResponse register(RegisterRequest request) {
@@ -59,11 +69,9 @@ public class AuthService {
         
         user = userRepository.save(user);
         logger.info("User registered: {}", user.getUsername());
+        evictUserCache(user.getUsername());
         
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtService.generateToken(userDetails);
-        
-        return new AuthResponse(token, user.getUsername(), user.getRole().name());
+        return issueTokens(user);
     }
     
     public AuthResponse registerAdmin(RegisterRequest request) {
@@ -86,11 +94,22 @@ public class AuthService {
         
         user = userRepository.save(user);
         logger.info("Admin registered: {}", user.getUsername());
+        evictUserCache(user.getUsername());
         
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtService.generateToken(userDetails);
-        
-        return new AuthResponse(token, user.getUsername(), user.getRole().name());
+        return issueTokens(user);
+    }
+    
+    /**
+     * Відкликання всіх виданих користувачу токенів (тільки ADMIN).
+     */
+    public void revokeTokens(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        // Спершу refresh-токени: якщо відкликання не вдасться записати в журнал, решта не змінюється й запит можна повторити
+        refreshTokenStore.revokeAll(user.getId());
+        user.setTokensValidAfter(revocationRegistry.revoke(username));
+        userRepository.save(user);
+        logger.info("Tokens revoked for user: {}", username);
     }
     
     public AuthResponse login(LoginRequest request) {
@@ -103,10 +122,39 @@ public class AuthService {
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new BadRequestException("User not found"));
         
+        logger.info("User logged in: {}", user.getUsername());
+        return issueTokens(user);
+    }
+    
+    /**
+     * Обмін refresh-токена на нову пару токенів. Старий refresh-токен стає недійсним,
+     * тож повторне використання перехопленого токена не спрацює.
+     */
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        long userId = refreshTokenStore.consume(request.getRefreshToken())
+                .orElseThrow(() -> new UnauthorizedException("Недійсний або прострочений refresh-токен"));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UnauthorizedException("Недійсний або прострочений refresh-токен"));
+        
+        logger.debug("Tokens refreshed: {}", user.getUsername());
+        return issueTokens(user);
+    }
+    
+    /** Короткоживучий access-токен і новий refresh-токен. */
+    private AuthResponse issueTokens(User user) {
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
         String token = jwtService.generateToken(userDetails);
-        
-        logger.info("User logged in: {}", user.getUsername());
-        return new AuthResponse(token, user.getUsername(), user.getRole().name());
+        String refreshToken = refreshTokenStore.issue(user.getId());
+        return new AuthResponse(token, refreshToken, jwtService.getExpiration() / 1000,
+                user.getUsername(), user.getRole().name());
+    }
+    
+    /**
+     * Інвалідація кешу користувачів; при відкаті реєстрації
+     * прибирається й запис, завантажений усередині транзакції.
+     */
+    private void evictUserCache(String username) {
+        userDetailsService.evict(username);
+        TransactionHooks.afterRollback(() -> userDetailsService.evict(username));
     }
 }
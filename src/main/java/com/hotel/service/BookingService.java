@@ -1,38 +1,85 @@
 package com.hotel.service;
 
+import com.hotel.dto.BatchBookingRequest;
+import com.hotel.dto.BatchBookingResponse;
 import com.hotel.dto.BookingDto;
 import com.hotel.entity.Booking;
 import com.hotel.entity.Room;
 import com.hotel.entity.User;
+import com.hotel.event.BookingEvent;
+import com.hotel.event.BookingEventPublisher;
 import com.hotel.exception.BadRequestException;
 import com.hotel.exception.ResourceNotFoundException;
+import com.hotel.repository.BookingInterval;
 import com.hotel.repository.BookingRepository;
+import com.hotel.repository.BookingView;
 import com.hotel.repository.RoomRepository;
 import com.hotel.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BookingService {
     
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+    private static final String ROOM_TAKEN = "Номер вже заброньований на ці дати";
     
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final OccupancyMatrix occupancyMatrix;
+    private final BookingEventPublisher eventPublisher;
+    private final boolean optimisticRoomLock;
     
-    public BookingService(BookingRepository bookingRepository, RoomRepository roomRepository, UserRepository userRepository) {
+    // Перевірка конфлікту: тег source - index (in-memory) або database
+    private final Timer indexConflictCheck;
+    private final Timer databaseConflictCheck;
+    private final Counter indexConflicts;
+    private final Counter databaseConflicts;
+    
+    public BookingService(BookingRepository bookingRepository, RoomRepository roomRepository, UserRepository userRepository,
+                          RoomAvailabilityIndex availabilityIndex, OccupancyMatrix occupancyMatrix,
+                          BookingEventPublisher eventPublisher,
+                          @Value("${booking.room-lock:pessimistic}") String roomLock,
+                          MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyMatrix = occupancyMatrix;
+        this.eventPublisher = eventPublisher;
+        this.optimisticRoomLock = "optimistic".equalsIgnoreCase(roomLock);
+        this.indexConflictCheck = conflictCheckTimer(meterRegistry, "index");
+        this.databaseConflictCheck = conflictCheckTimer(meterRegistry, "database");
+        this.indexConflicts = conflictCounter(meterRegistry, "index");
+        this.databaseConflicts = conflictCounter(meterRegistry, "database");
     }
     
     /**
@@ -41,12 +88,12 @@ public class BookingService {
     public BookingDto createBooking(BookingDto dto) {
         // Отримуємо поточного користувача
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        logger.info("User {} creating booking for room {}", username, dto.getRoomId());
+        logger.debug("User {} creating booking for room {}", username, dto.getRoomId());
         
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
-        Room room = roomRepository.findById(dto.getRoomId())
+        Room room = findRoomForBooking(dto.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room", "id", dto.getRoomId()));
         
         // Перевірка доступності
@@ -60,61 +107,148 @@ public class BookingService {
             throw new BadRequestException("Невірні дати бронювання");
         }
         
-        // Перевірка конфліктів
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-                room.getId(), dto.getCheckInDate(), dto.getCheckOutDate());
-        if (!conflicts.isEmpty()) {
-            throw new BadRequestException("Номер вже заброньований на ці дати");
-        }
+        // Перевірка конфліктів із резервуванням дат
+        RoomAvailabilityIndex.Reservation reservation = reserve(room.getId(), dto);
         
         // Створення бронювання
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setRoom(room);
-        booking.setCheckInDate(dto.getCheckInDate());
-        booking.setCheckOutDate(dto.getCheckOutDate());
-        booking.setStatus(Booking.BookingStatus.CONFIRMED);
-        
-        // Розрахунок вартості
-        long nights = booking.getNights();
-        BigDecimal totalPrice = room.getPricePerNight().multiply(BigDecimal.valueOf(nights));
-        booking.setTotalPrice(totalPrice);
+        Booking booking = bookingRepository.save(newBooking(user, room, dto));
+        logger.debug("Booking created: id={}, total={}", booking.getId(), booking.getTotalPrice());
         
-        booking = bookingRepository.save(booking);
-        logger.info("Booking created: id={}, total={}", booking.getId(), totalPrice);
+        if (reservation != null) {
+            reservation.bind(booking.getId());
+        }
+        BookingEvent event = BookingEvent.of(BookingEvent.Type.CREATED, username, booking);
+        TransactionHooks.afterCommit(() -> {
+            occupancyMatrix.occupy(room.getId(), dto.getCheckInDate(), dto.getCheckOutDate());
+            eventPublisher.publish(event);
+        });
         
         return toDto(booking);
     }
     
+    /**
+     * Пакетне бронювання кількох номерів (групи, туроператори).
+     * Номери завантажуються одним запитом, конфлікти перевіряються в індексі або одним запитом
+     * по всіх номерах пакета, з урахуванням перетинів усередині самого пакета;
+     * бронювання вставляються пакетами JDBC.
+     * ALL_OR_NOTHING: за будь-якої помилки нічого не створюється; BEST_EFFORT: створюються дійсні.
+     */
+    public BatchBookingResponse createBookings(BatchBookingRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        List<BookingDto> items = request.getBookings();
+        logger.debug("User {} creating {} bookings ({})", username, items.size(), request.getMode());
+        
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        
+        Set<Long> roomIds = items.stream().map(BookingDto::getRoomId).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Room> rooms = findRoomsForBooking(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        Map<Long, List<BookingInterval>> taken = availabilityIndex.isEnabled()
+                ? Map.of() : findTakenIntervals(roomIds, items);
+        
+        BatchBookingResponse response = new BatchBookingResponse();
+        List<Booking> bookings = new ArrayList<>();
+        List<RoomAvailabilityIndex.Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BookingDto dto = items.get(i);
+            Room room = rooms.get(dto.getRoomId());
+            String error = validate(room, dto);
+            RoomAvailabilityIndex.Reservation reservation = null;
+            if (error == null && availabilityIndex.isEnabled()) {
+                reservation = availabilityIndex.tryReserve(room.getId(), dto.getCheckInDate(), dto.getCheckOutDate());
+                if (reservation == null) {
+                    indexConflicts.increment();
+                    error = ROOM_TAKEN;
+                }
+            } else if (error == null && !takeInterval(taken, room.getId(), dto)) {
+                databaseConflicts.increment();
+                error = ROOM_TAKEN;
+            }
+            if (error != null) {
+                response.getErrors().add(new BatchBookingResponse.ItemError(i, dto.getRoomId(), error));
+                continue;
+            }
+            bookings.add(newBooking(user, room, dto));
+            reservations.add(reservation);
+        }
+        
+        if (request.getMode() == BatchBookingRequest.Mode.ALL_OR_NOTHING && !response.getErrors().isEmpty()) {
+            reservations.stream().filter(Objects::nonNull).forEach(availabilityIndex::release);
+            logger.debug("Batch of {} bookings rejected: {} errors", items.size(), response.getErrors().size());
+            return response;
+        }
+        TransactionHooks.afterRollback(() ->
+                reservations.stream().filter(Objects::nonNull).forEach(availabilityIndex::release));
+        
+        bookingRepository.saveAll(bookings);
+        List<BookingInterval> occupied = new ArrayList<>(bookings.size());
+        List<BookingEvent> events = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (reservations.get(i) != null) {
+                reservations.get(i).bind(booking.getId());
+            }
+            occupied.add(new BookingInterval(booking.getId(), booking.getRoom().getId(),
+                    booking.getCheckInDate(), booking.getCheckOutDate()));
+            events.add(BookingEvent.of(BookingEvent.Type.CREATED, username, booking));
+        }
+        TransactionHooks.afterCommit(() -> {
+            occupied.forEach(interval ->
+                    occupancyMatrix.occupy(interval.roomId(), interval.checkInDate(), interval.checkOutDate()));
+            events.forEach(eventPublisher::publish);
+        });
+        
+        response.setCreated(bookings.stream().map(this::toDto).collect(Collectors.toList()));
+        logger.debug("Batch bookings created: {}, rejected: {}", bookings.size(), response.getErrors().size());
+        return response;
+    }
+    
     @Transactional(readOnly = true)
     public BookingDto getBookingById(Long id) {
-        return toDto(bookingRepository.findById(id)
+        return toDto(bookingRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id)));
     }
     
     @Transactional(readOnly = true)
     public List<BookingDto> getMyBookings() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-        return bookingRepository.findByUserId(user.getId()).stream().map(this::toDto).collect(Collectors.toList());
+        return bookingRepository.findViewsByUsername(username).stream().map(this::toDto).collect(Collectors.toList());
     }
     
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookings() {
-        return bookingRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return bookingRepository.findAllViews().stream().map(this::toDto).collect(Collectors.toList());
+    }
+    
+    /**
+     * Сторінка бронювань після курсора (keyset-пагінація за id).
+     */
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsPage(Long after, int limit) {
+        return bookingRepository.findViewPage(after, Limit.of(limit)).stream().map(this::toDto).collect(Collectors.toList());
+    }
+    
+    /**
+     * Потокове читання всіх бронювань з проєкції, без керованих сутностей.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllBookings(Consumer<BookingDto> sink) {
+        try (Stream<BookingView> views = bookingRepository.streamAllViews()) {
+            views.map(this::toDto).forEach(sink);
+        }
     }
     
     @Transactional(readOnly = true)
     public List<BookingDto> getBookingsByHotel(Long hotelId) {
-        return bookingRepository.findByHotelId(hotelId).stream().map(this::toDto).collect(Collectors.toList());
+        return bookingRepository.findViewsByHotelId(hotelId).stream().map(this::toDto).collect(Collectors.toList());
     }
     
     /**
      * Скасування бронювання (тільки ADMIN).
      */
     public BookingDto cancelBooking(Long id) {
-        logger.info("Admin cancelling booking: {}", id);
+        logger.debug("Admin cancelling booking: {}", id);
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
@@ -125,8 +259,10 @@ public class BookingService {
         
         booking.setStatus(Booking.BookingStatus.CANCELLED);
         booking = bookingRepository.save(booking);
+        releaseAfterCommit(booking);
+        publishAfterCommit(BookingEvent.Type.CANCELLED, booking);
         
-        logger.info("Booking {} cancelled", id);
+        logger.debug("Booking {} cancelled", id);
         return toDto(booking);
     }
     
@@ -134,9 +270,127 @@ public class BookingService {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
         bookingRepository.delete(booking);
+        // Скасоване бронювання вже звільнило свої дати
+        if (booking.getStatus() != Booking.BookingStatus.CANCELLED) {
+            releaseAfterCommit(booking);
+        }
+        publishAfterCommit(BookingEvent.Type.DELETED, booking);
     }
     
-    private BookingDto toDto(Booking booking) {
+    /**
+     * З індексом номер не блокується: дати займаються атомарно в пам'яті.
+     * Без індексу рядок номера блокується в БД, що серіалізує бронювання лише цього номера.
+     */
+    private Optional<Room> findRoomForBooking(Long roomId) {
+        if (availabilityIndex.isEnabled()) {
+            return roomRepository.findById(roomId);
+        }
+        return optimisticRoomLock
+                ? roomRepository.findWithVersionIncrementById(roomId)
+                : roomRepository.findWithLockById(roomId);
+    }
+    
+    private List<Room> findRoomsForBooking(Set<Long> roomIds) {
+        if (availabilityIndex.isEnabled()) {
+            return roomRepository.findAllWithHotelByIdIn(roomIds);
+        }
+        return optimisticRoomLock
+                ? roomRepository.findAllWithVersionIncrementByIdIn(roomIds)
+                : roomRepository.findAllWithLockByIdIn(roomIds);
+    }
+    
+    /** Зайняті інтервали всіх номерів пакета за період від найранішого заїзду до найпізнішого виїзду. */
+    private Map<Long, List<BookingInterval>> findTakenIntervals(Set<Long> roomIds, List<BookingDto> items) {
+        LocalDate from = items.stream().map(BookingDto::getCheckInDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = items.stream().map(BookingDto::getCheckOutDate).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<BookingInterval>> taken = new HashMap<>();
+        bookingRepository.findActiveIntervalsForRooms(roomIds, from, to)
+                .forEach(interval -> taken.computeIfAbsent(interval.roomId(), id -> new ArrayList<>()).add(interval));
+        return taken;
+    }
+    
+    /** Займає інтервал, якщо він не перетинається з бронюваннями номера (межі включні). */
+    private static boolean takeInterval(Map<Long, List<BookingInterval>> taken, Long roomId, BookingDto dto) {
+        List<BookingInterval> intervals = taken.computeIfAbsent(roomId, id -> new ArrayList<>());
+        boolean conflict = intervals.stream().anyMatch(interval ->
+                !interval.checkInDate().isAfter(dto.getCheckOutDate()) && !interval.checkOutDate().isBefore(dto.getCheckInDate()));
+        if (conflict) {
+            return false;
+        }
+        intervals.add(new BookingInterval(null, roomId, dto.getCheckInDate(), dto.getCheckOutDate()));
+        return true;
+    }
+    
+    private static String validate(Room room, BookingDto dto) {
+        if (room == null) {
+            return "Номер не знайдено";
+        }
+        if (!room.getAvailable()) {
+            return "Номер недоступний";
+        }
+        if (!dto.getCheckOutDate().isAfter(dto.getCheckInDate())) {
+            return "Невірні дати бронювання";
+        }
+        return null;
+    }
+    
+    private static Booking newBooking(User user, Room room, BookingDto dto) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setRoom(room);
+        booking.setCheckInDate(dto.getCheckInDate());
+        booking.setCheckOutDate(dto.getCheckOutDate());
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        
+        // Розрахунок вартості
+        long nights = booking.getNights();
+        booking.setTotalPrice(room.getPricePerNight().multiply(BigDecimal.valueOf(nights)));
+        return booking;
+    }
+    
+    /**
+     * Резервування дат в індексі до збереження бронювання.
+     * Паралельний запит на ті самі дати побачить резервацію й отримає конфлікт;
+     * при відкаті транзакції резервація знімається.
+     */
+    private RoomAvailabilityIndex.Reservation reserve(Long roomId, BookingDto dto) {
+        if (!availabilityIndex.isEnabled()) {
+            boolean taken = databaseConflictCheck.record(() ->
+                    !bookingRepository.findConflictingBookings(roomId, dto.getCheckInDate(), dto.getCheckOutDate()).isEmpty());
+            if (taken) {
+                databaseConflicts.increment();
+                throw new BadRequestException(ROOM_TAKEN);
+            }
+            return null;
+        }
+        RoomAvailabilityIndex.Reservation reservation = indexConflictCheck.record(() ->
+                availabilityIndex.tryReserve(roomId, dto.getCheckInDate(), dto.getCheckOutDate()));
+        if (reservation == null) {
+            indexConflicts.increment();
+            throw new BadRequestException(ROOM_TAKEN);
+        }
+        TransactionHooks.afterRollback(() -> availabilityIndex.release(reservation));
+        return reservation;
+    }
+    
+    private void releaseAfterCommit(Booking booking) {
+        Long bookingId = booking.getId();
+        Long roomId = booking.getRoom().getId();
+        LocalDate checkIn = booking.getCheckInDate();
+        LocalDate checkOut = booking.getCheckOutDate();
+        TransactionHooks.afterCommit(() -> {
+            availabilityIndex.remove(bookingId, roomId, checkIn);
+            occupancyMatrix.release(roomId, checkIn, checkOut);
+        });
+    }
+    
+    private void publishAfterCommit(BookingEvent.Type type, Booking booking) {
+        String actor = SecurityContextHolder.getContext().getAuthentication().getName();
+        BookingEvent event = BookingEvent.of(type, actor, booking);
+        TransactionHooks.afterCommit(() -> eventPublisher.publish(event));
+    }
+    
+    BookingDto toDto(Booking booking) {
         BookingDto dto = new BookingDto();
         dto.setId(booking.getId());
         dto.setRoomId(booking.getRoom().getId());
@@ -150,4 +404,33 @@ public class BookingService {
         dto.setNights(booking.getNights());
         return dto;
     }
+    
+    BookingDto toDto(BookingView view) {
+        BookingDto dto = new BookingDto();
+        dto.setId(view.id());
+        dto.setRoomId(view.roomId());
+        dto.setCheckInDate(view.checkInDate());
+        dto.setCheckOutDate(view.checkOutDate());
+        dto.setTotalPrice(view.totalPrice());
+        dto.setStatus(view.status());
+        dto.setUserName(view.userName());
+        dto.setRoomNumber(view.roomNumber());
+        dto.setHotelName(view.hotelName());
+        dto.setNights(ChronoUnit.DAYS.between(view.checkInDate(), view.checkOutDate()));
+        return dto;
+    }
+    
+    private static Timer conflictCheckTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("booking.conflict.check")
+                .description("Time to check a room for overlapping bookings")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+    
+    private static Counter conflictCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("booking.conflicts")
+                .description("Bookings rejected because the room is already booked for the dates")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,353 @@
+package com.hotel.service;
+
+import com.hotel.dto.HotelSuggestion;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.HotelText;
+import com.hotel.repository.RoomDescription;
+import com.hotel.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Інвертований індекс для підказок пошуку готелів за назвою, містом, описом готелю та описами номерів.
+ * Терм - слово в нижньому регістрі; для кожного терма зберігається відсортований масив int номерів документів.
+ * Коротке слово запиту (менше трьох символів) шукається за префіксом у впорядкованому словнику,
+ * довший - усередині слів через триграми термів. Слова запиту поєднуються через AND.
+ * Оновлення готелю створює новий документ, а старий позначається видаленим;
+ * коли видалених більше, ніж живих, індекс ущільнюється.
+ */
+@Component
+public class HotelSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HotelSearchIndex.class);
+    private static final int GRAM = 3;
+    private static final int INITIAL_DOCS = 1024;
+    private static final int COMPACT_MIN_DEAD = 1024;
+    private static final Pattern APOSTROPHES = Pattern.compile("['’ʼ`]");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Словник, впорядкований для пошуку за префіксом, і триграма -> терми, що її містять
+    private final TreeMap<String, Term> terms = new TreeMap<>();
+    private final Map<String, List<Term>> grams = new HashMap<>();
+    
+    // Документи: номер лише зростає, тому масиви документів термів залишаються відсортованими
+    private final Map<Long, Integer> docs = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private int docCount;
+    private long[] hotelIds = new long[INITIAL_DOCS];
+    private String[] names = new String[INITIAL_DOCS];
+    private String[] cities = new String[INITIAL_DOCS];
+    private String[] nameKeys = new String[INITIAL_DOCS];
+    private String[] cityKeys = new String[INITIAL_DOCS];
+    
+    public HotelSearchIndex(HotelRepository hotelRepository, RoomRepository roomRepository) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+    }
+    
+    @PostConstruct
+    void load() {
+        List<HotelText> hotels = hotelRepository.findAllTexts();
+        Map<Long, List<String>> rooms = groupByHotel(roomRepository.findAllDescriptions());
+        lock.writeLock().lock();
+        try {
+            hotels.forEach(hotel -> putLocked(hotel, rooms.getOrDefault(hotel.id(), List.of())));
+            logger.info("Hotel search index loaded: {} hotels, {} terms", docs.size(), terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Підказки: спершу готелі, назва яких починається з першого слова запиту,
+     * потім зі збігом у назві чи місті, потім зі збігом лише в описах.
+     */
+    public List<HotelSuggestion> suggest(String query, int limit) {
+        List<String> tokens = List.copyOf(tokenize(query));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String first = tokens.get(0);
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (String token : tokens) {
+                BitSet tokenMatches = match(token);
+                if (matches == null) {
+                    matches = tokenMatches;
+                } else {
+                    matches.and(tokenMatches);
+                }
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+            }
+            matches.and(live);
+            
+            List<List<HotelSuggestion>> ranked = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+            for (int doc = matches.nextSetBit(0); doc >= 0 && ranked.get(0).size() < limit; doc = matches.nextSetBit(doc + 1)) {
+                int rank = nameKeys[doc].startsWith(first) ? 0
+                        : nameKeys[doc].contains(first) || cityKeys[doc].startsWith(first) ? 1 : 2;
+                if (ranked.get(rank).size() < limit) {
+                    ranked.get(rank).add(new HotelSuggestion(hotelIds[doc], names[doc], cities[doc]));
+                }
+            }
+            return ranked.stream().flatMap(List::stream).limit(limit).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Переіндексація готелів з БД після коміту: додавання, зміна готелю чи його номерів, видалення.
+     */
+    public void refresh(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, HotelText> hotels = hotelRepository.findTextsByIdIn(ids).stream()
+                .collect(Collectors.toMap(HotelText::id, hotel -> hotel));
+        Map<Long, List<String>> rooms = groupByHotel(roomRepository.findDescriptionsByHotelIdIn(ids));
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                HotelText hotel = hotels.get(id);
+                if (hotel != null) {
+                    putLocked(hotel, rooms.getOrDefault(id, List.of()));
+                } else {
+                    removeLocked(id);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void put(HotelText hotel, List<String> roomDescriptions) {
+        lock.writeLock().lock();
+        try {
+            putLocked(hotel, roomDescriptions);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long hotelId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(hotelId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private BitSet match(String token) {
+        BitSet matches = new BitSet(docCount);
+        if (token.length() < GRAM) {
+            for (Term term : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                term.addTo(matches);
+            }
+            return matches;
+        }
+        // Кандидати - терми найрідшої триграми запиту; збіг підтверджується пошуком підрядка
+        List<Term> candidates = null;
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            List<Term> gramTerms = grams.get(token.substring(i, i + GRAM));
+            if (gramTerms == null) {
+                return matches;
+            }
+            if (candidates == null || gramTerms.size() < candidates.size()) {
+                candidates = gramTerms;
+            }
+        }
+        for (Term term : candidates) {
+            if (term.text.contains(token)) {
+                term.addTo(matches);
+            }
+        }
+        return matches;
+    }
+    
+    private void putLocked(HotelText hotel, List<String> roomDescriptions) {
+        removeLocked(hotel.id());
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        docs.put(hotel.id(), doc);
+        live.set(doc);
+        hotelIds[doc] = hotel.id();
+        names[doc] = hotel.name();
+        cities[doc] = hotel.city();
+        nameKeys[doc] = hotel.name().toLowerCase(Locale.ROOT);
+        cityKeys[doc] = hotel.city().toLowerCase(Locale.ROOT);
+        
+        Set<String> words = tokenize(hotel.name());
+        words.addAll(tokenize(hotel.city()));
+        words.addAll(tokenize(hotel.description()));
+        roomDescriptions.forEach(description -> words.addAll(tokenize(description)));
+        for (String word : words) {
+            terms.computeIfAbsent(word, this::newTerm).add(doc);
+        }
+    }
+    
+    private void removeLocked(Long hotelId) {
+        Integer doc = docs.remove(hotelId);
+        if (doc != null) {
+            live.clear(doc);
+            names[doc] = null;
+            cities[doc] = null;
+            nameKeys[doc] = null;
+            cityKeys[doc] = null;
+        }
+    }
+    
+    private Term newTerm(String word) {
+        Term term = new Term(word);
+        addGrams(term);
+        return term;
+    }
+    
+    private void addGrams(Term term) {
+        for (int i = 0; i + GRAM <= term.text.length(); i++) {
+            List<Term> gramTerms = grams.computeIfAbsent(term.text.substring(i, i + GRAM), gram -> new ArrayList<>());
+            // Триграма може повторюватися в слові
+            if (gramTerms.isEmpty() || gramTerms.get(gramTerms.size() - 1) != term) {
+                gramTerms.add(term);
+            }
+        }
+    }
+    
+    /**
+     * Перенумерація живих документів підряд зі збереженням порядку,
+     * видалення порожніх термів і перебудова триграм.
+     */
+    private void compactIfNeeded() {
+        int dead = docCount - docs.size();
+        if (dead < COMPACT_MIN_DEAD || dead <= docs.size()) {
+            return;
+        }
+        int[] renumbered = new int[docCount];
+        int next = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            renumbered[doc] = next;
+            hotelIds[next] = hotelIds[doc];
+            names[next] = names[doc];
+            cities[next] = cities[doc];
+            nameKeys[next] = nameKeys[doc];
+            cityKeys[next] = cityKeys[doc];
+            next++;
+        }
+        Arrays.fill(names, next, docCount, null);
+        Arrays.fill(cities, next, docCount, null);
+        Arrays.fill(nameKeys, next, docCount, null);
+        Arrays.fill(cityKeys, next, docCount, null);
+        
+        grams.clear();
+        for (Iterator<Term> iterator = terms.values().iterator(); iterator.hasNext(); ) {
+            Term term = iterator.next();
+            term.retain(live, renumbered);
+            if (term.size == 0) {
+                iterator.remove();
+            } else {
+                addGrams(term);
+            }
+        }
+        docs.replaceAll((hotelId, doc) -> renumbered[doc]);
+        live.clear();
+        live.set(0, next);
+        logger.debug("Hotel search index compacted: {} -> {} documents", docCount, next);
+        docCount = next;
+    }
+    
+    private void ensureCapacity(int size) {
+        if (size <= hotelIds.length) {
+            return;
+        }
+        int capacity = Math.max(size, hotelIds.length * 2);
+        hotelIds = Arrays.copyOf(hotelIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        cities = Arrays.copyOf(cities, capacity);
+        nameKeys = Arrays.copyOf(nameKeys, capacity);
+        cityKeys = Arrays.copyOf(cityKeys, capacity);
+    }
+    
+    private static Map<Long, List<String>> groupByHotel(List<RoomDescription> descriptions) {
+        return descriptions.stream().collect(Collectors.groupingBy(RoomDescription::hotelId,
+                Collectors.mapping(RoomDescription::description, Collectors.toList())));
+    }
+    
+    /** Слова в нижньому регістрі без апострофів, у порядку появи, без повторів. */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        String normalized = APOSTROPHES.matcher(text.toLowerCase(Locale.ROOT)).replaceAll("");
+        for (String word : SEPARATORS.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+    
+    /** Терм і відсортований масив номерів документів, що його містять. */
+    private static final class Term {
+        
+        final String text;
+        int[] docs = new int[2];
+        int size;
+        
+        Term(String text) {
+            this.text = text;
+        }
+        
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+        
+        void addTo(BitSet matches) {
+            for (int i = 0; i < size; i++) {
+                matches.set(docs[i]);
+            }
+        }
+        
+        void retain(BitSet live, int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(docs[i])) {
+                    docs[kept++] = renumbered[docs[i]];
+                }
+            }
+            size = kept;
+            docs = Arrays.copyOf(docs, Math.max(kept, 1));
+        }
+    }
+}
@@ -1,38 +1,133 @@
 package com.hotel.service;
 
+import com.hotel.cache.CatalogCaches;
 import com.hotel.dto.HotelDto;
+import com.hotel.dto.HotelSuggestion;
 import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.exception.BadRequestException;
 import com.hotel.exception.ResourceNotFoundException;
 import com.hotel.repository.HotelRepository;
+import com.hotel.repository.HotelSpecifications;
+import com.hotel.repository.RoomCount;
+import com.hotel.repository.RoomRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class HotelService {
     
     private static final Logger logger = LoggerFactory.getLogger(HotelService.class);
+    private static final int STREAM_CLEAR_INTERVAL = 500;
     private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final OccupancyMatrix occupancyMatrix;
+    private final HotelSearchIndex searchIndex;
+    private final EntityManager entityManager;
+    private final CatalogCaches catalogCaches;
     
-    public HotelService(HotelRepository hotelRepository) {
+    public HotelService(HotelRepository hotelRepository, RoomRepository roomRepository,
+                        RoomAvailabilityIndex availabilityIndex, OccupancyMatrix occupancyMatrix,
+                        HotelSearchIndex searchIndex, EntityManager entityManager, CatalogCaches catalogCaches) {
         this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyMatrix = occupancyMatrix;
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
+        this.catalogCaches = catalogCaches;
     }
     
+    @Cacheable(cacheNames = CatalogCaches.HOTEL_LIST, key = "'all'", sync = true)
     @Transactional(readOnly = true)
     public List<HotelDto> getAllHotels() {
         logger.info("Getting all hotels");
-        return hotelRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        Map<Long, Long> roomCounts = toMap(roomRepository.countAllByHotel());
+        return hotelRepository.findAll().stream()
+                .map(hotel -> toDto(hotel, roomCounts.getOrDefault(hotel.getId(), 0L)))
+                .collect(Collectors.toList());
     }
     
+    /**
+     * Сторінка готелів після курсора (keyset-пагінація за id).
+     */
+    @Transactional(readOnly = true)
+    public List<HotelDto> getHotelsPage(Long after, int limit) {
+        return toDtos(hotelRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit)));
+    }
+    
+    /**
+     * Пошук готелів за містом, зірками та номерами (тип, ціна за ніч), сторінка після курсора.
+     * Без фільтрів за номерами - індекс idx_hotels_city_stars; з ними - ще підзапит по idx_rooms_hotel_type_price.
+     */
+    @Transactional(readOnly = true)
+    public List<HotelDto> searchHotels(String city, Integer stars, BigDecimal minPrice, BigDecimal maxPrice,
+                                       Room.RoomType roomType, Long after, int limit) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("Мінімальна ціна більша за максимальну");
+        }
+        if (stars != null && (stars < 1 || stars > 5)) {
+            throw new BadRequestException("Кількість зірок має бути від 1 до 5");
+        }
+        List<Hotel> hotels = hotelRepository.findBy(
+                HotelSpecifications.search(city, stars, minPrice, maxPrice, roomType, after),
+                query -> query.sortBy(Sort.by("id")).limit(limit).all());
+        return toDtos(hotels);
+    }
+    
+    /**
+     * Підказки для пошуку за інвертованим індексом у пам'яті, без звернення до БД
+     * (SUPPORTS не відкриває транзакцію й не бере з'єднання).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<HotelSuggestion> suggestHotels(String query, int limit) {
+        return searchIndex.suggest(query, limit);
+    }
+    
+    /**
+     * Потокове читання всіх готелів; контекст персистентності періодично очищується,
+     * тому пам'ять не росте з розміром таблиці. Кількість номерів рахується одним запитом на порцію.
+     */
+    @Transactional(readOnly = true)
+    public void streamHotels(Consumer<HotelDto> sink) {
+        try (Stream<Hotel> hotels = hotelRepository.streamAll()) {
+            Iterator<Hotel> iterator = hotels.iterator();
+            List<Hotel> chunk = new ArrayList<>(STREAM_CLEAR_INTERVAL);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CLEAR_INTERVAL || !iterator.hasNext()) {
+                    toDtos(chunk).forEach(sink);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
+    @Cacheable(cacheNames = CatalogCaches.HOTELS, sync = true)
     @Transactional(readOnly = true)
     public HotelDto getHotelById(Long id) {
-        return toDto(hotelRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Hotel", "id", id)));
+        Hotel hotel = hotelRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel", "id", id));
+        return toDto(hotel, roomRepository.countByHotelId(id));
     }
     
     public HotelDto createHotel(HotelDto dto) {
@@ -43,7 +138,11 @@ public class HotelService {
         hotel.setCity(dto.getCity());
         hotel.setStars(dto.getStars());
         hotel.setDescription(dto.getDescription());
-        return toDto(hotelRepository.save(hotel));
+        hotel = hotelRepository.saveAndFlush(hotel);
+        catalogCaches.evictHotel(hotel.getId(), List.of());
+        Long id = hotel.getId();
+        TransactionHooks.afterCommit(() -> searchIndex.refresh(List.of(id)));
+        return toDto(hotel, 0L);
     }
     
     public HotelDto updateHotel(Long id, HotelDto dto) {
@@ -54,17 +153,54 @@ public class HotelService {
         hotel.setCity(dto.getCity());
         hotel.setStars(dto.getStars());
         hotel.setDescription(dto.getDescription());
-        return toDto(hotelRepository.save(hotel));
+        // flush до маппінгу: у відповіді (і ETag) - вже нова версія
+        hotel = hotelRepository.saveAndFlush(hotel);
+        
+        // Місто впливає на пошук номерів за матрицею зайнятості
+        List<Room> rooms = List.copyOf(hotel.getRooms());
+        String city = hotel.getCity();
+        catalogCaches.evictHotel(id, rooms.stream().map(Room::getId).collect(Collectors.toList()));
+        TransactionHooks.afterCommit(() -> {
+            rooms.forEach(room -> occupancyMatrix.putRoom(
+                    room.getId(), city, room.getType(), room.getCapacity(), room.getAvailable()));
+            searchIndex.refresh(List.of(id));
+        });
+        return toDto(hotel, rooms.size());
     }
     
     public void deleteHotel(Long id) {
         logger.info("Deleting hotel: {}", id);
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel", "id", id));
+        List<Long> roomIds = hotel.getRooms().stream().map(Room::getId).collect(Collectors.toList());
         hotelRepository.delete(hotel);
+        catalogCaches.evictHotel(id, roomIds);
+        TransactionHooks.afterCommit(() -> {
+            roomIds.forEach(roomId -> {
+                availabilityIndex.removeRoom(roomId);
+                occupancyMatrix.removeRoom(roomId);
+            });
+            searchIndex.remove(id);
+        });
+    }
+    
+    /** Сторінка готелів з кількістю номерів, отриманою одним згрупованим запитом. */
+    private List<HotelDto> toDtos(List<Hotel> hotels) {
+        if (hotels.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hotels.stream().map(Hotel::getId).collect(Collectors.toList());
+        Map<Long, Long> roomCounts = toMap(roomRepository.countByHotelIds(ids));
+        return hotels.stream()
+                .map(hotel -> toDto(hotel, roomCounts.getOrDefault(hotel.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+    
+    private static Map<Long, Long> toMap(List<RoomCount> counts) {
+        return counts.stream().collect(Collectors.toMap(RoomCount::hotelId, RoomCount::count));
     }
     
-    private HotelDto toDto(Hotel hotel) {
+    HotelDto toDto(Hotel hotel, long roomCount) {
         HotelDto dto = new HotelDto();
         dto.setId(hotel.getId());
         dto.setName(hotel.getName());
@@ -72,7 +208,8 @@ public class HotelService {
         dto.setCity(hotel.getCity());
         dto.setStars(hotel.getStars());
         dto.setDescription(hotel.getDescription());
-        dto.setRoomCount(hotel.getRooms() != null ? hotel.getRooms().size() : 0);
+        dto.setRoomCount((int) roomCount);
+        dto.setVersion(hotel.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,108 @@
+package com.hotel.service;
+
+import com.hotel.dto.ImportStatus;
+import com.hotel.entity.ImportJobError;
+import com.hotel.entity.ImportJobHotel;
+import com.hotel.entity.ImportJobState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Стан одного імпорту в пам'яті: контрольна точка, лічильники, помилки рядків і відповідність
+ * зовнішніх кодів готелів їхнім id. Змінюється лише після коміту порції, у якій той самий стан
+ * записано в БД, тож при відновленні - і в цьому процесі, і після перезапуску - пропущені рядки
+ * точно збігаються зі збереженими.
+ */
+final class ImportJob {
+    
+    private final String id;
+    private final int maxErrors;
+    private final Map<String, Long> hotelIds = new ConcurrentHashMap<>();
+    private final List<ImportStatus.RowError> errors = new ArrayList<>();
+    
+    private boolean running;
+    private ImportStatus.State state = ImportStatus.State.RUNNING;
+    private String message;
+    private long checkpoint;
+    private long hotelsCreated;
+    private long roomsCreated;
+    private long errorCount;
+    
+    ImportJob(String id, int maxErrors) {
+        this.id = id;
+        this.maxErrors = maxErrors;
+    }
+    
+    /**
+     * Стан, прочитаний з БД. RUNNING там означає, що процес зупинився посеред імпорту:
+     * такий імпорт показується як FAILED, доки його не продовжать.
+     */
+    static ImportJob restore(ImportJobState state, List<ImportJobHotel> hotels, List<ImportJobError> errors,
+                             int maxErrors) {
+        ImportJob job = new ImportJob(state.getId(), maxErrors);
+        hotels.forEach(hotel -> job.hotelIds.put(hotel.getHotelKey(), hotel.getHotelId()));
+        errors.forEach(error -> job.errors.add(new ImportStatus.RowError(error.getLineNumber(), error.getMessage())));
+        job.checkpoint = state.getCheckpoint();
+        job.hotelsCreated = state.getHotelsCreated();
+        job.roomsCreated = state.getRoomsCreated();
+        job.errorCount = state.getErrorCount();
+        if (state.getState() == ImportStatus.State.RUNNING) {
+            job.state = ImportStatus.State.FAILED;
+            job.message = "Імпорт перервано зупинкою застосунку, продовжіть з тим самим jobId";
+        } else {
+            job.state = state.getState();
+            job.message = state.getMessage();
+        }
+        return job;
+    }
+    
+    String id() {
+        return id;
+    }
+    
+    /** Повертає false, якщо імпорт з цим id уже виконується. */
+    synchronized boolean start() {
+        if (running) {
+            return false;
+        }
+        running = true;
+        state = ImportStatus.State.RUNNING;
+        message = null;
+        return true;
+    }
+    
+    synchronized long checkpoint() {
+        return checkpoint;
+    }
+    
+    Long hotelId(String hotelKey) {
+        return hotelIds.get(hotelKey);
+    }
+    
+    synchronized void commit(long line, Map<String, Long> newHotels, int rooms, List<ImportStatus.RowError> chunkErrors) {
+        checkpoint = line;
+        hotelIds.putAll(newHotels);
+        hotelsCreated += newHotels.size();
+        roomsCreated += rooms;
+        errorCount += chunkErrors.size();
+        for (ImportStatus.RowError error : chunkErrors) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+    }
+    
+    synchronized void finish(ImportStatus.State state, String message) {
+        this.state = state;
+        this.message = message;
+        this.running = false;
+    }
+    
+    synchronized ImportStatus status() {
+        return new ImportStatus(id, state, checkpoint, hotelsCreated, roomsCreated, errorCount,
+                List.copyOf(errors), message);
+    }
+}
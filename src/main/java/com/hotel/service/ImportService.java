@@ -0,0 +1,528 @@
+package com.hotel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.cache.CatalogCaches;
+import com.hotel.dto.HotelDto;
+import com.hotel.dto.ImportRow;
+import com.hotel.dto.ImportStatus;
+import com.hotel.dto.RoomDto;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.ImportJobError;
+import com.hotel.entity.ImportJobHotel;
+import com.hotel.entity.ImportJobState;
+import com.hotel.entity.Room;
+import com.hotel.exception.BadRequestException;
+import com.hotel.exception.ResourceNotFoundException;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.ImportJobRepository;
+import com.hotel.repository.RoomRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковий імпорт готелів і номерів з CSV або NDJSON.
+ * Файл читається порядково без буферизації цілком; дійсні рядки зберігаються порціями,
+ * кожна порція - окрема транзакція з пакетними вставками. Якщо порція не зберігається через
+ * помилку даних, її рядки повторюються поодинці, щоб відокремити помилкові; інший збій
+ * (недоступна БД) зупиняє імпорт зі станом FAILED на останньому збереженому рядку.
+ * Контрольна точка, створені готелі й помилки рядків записуються в import_jobs у транзакції
+ * самої порції: повторне завантаження того самого файлу з тим самим jobId пропускає вже
+ * збережені рядки, зокрема й після перезапуску застосунку.
+ * Клас не транзакційний: транзакціями порцій керує TransactionTemplate.
+ */
+@Service
+public class ImportService {
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+    private static final int MAX_JOB_ID_LENGTH = 100;
+    private static final int MAX_HOTEL_KEY_LENGTH = 255;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ImportJobRepository importJobRepository;
+    private final OccupancyMatrix occupancyMatrix;
+    private final HotelSearchIndex searchIndex;
+    private final CatalogCaches catalogCaches;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Duration jobTtl;
+    private final Cache<String, ImportJob> jobs;
+    
+    public ImportService(HotelRepository hotelRepository, RoomRepository roomRepository,
+                         ImportJobRepository importJobRepository,
+                         OccupancyMatrix occupancyMatrix, HotelSearchIndex searchIndex,
+                         CatalogCaches catalogCaches, EntityManager entityManager,
+                         ObjectMapper objectMapper, Validator validator, PlatformTransactionManager transactionManager,
+                         @Value("${import.chunk-size:500}") int chunkSize,
+                         @Value("${import.max-errors:1000}") int maxErrors,
+                         @Value("${import.job-ttl:24h}") Duration jobTtl) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.importJobRepository = importJobRepository;
+        this.occupancyMatrix = occupancyMatrix;
+        this.searchIndex = searchIndex;
+        this.catalogCaches = catalogCaches;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.jobTtl = jobTtl;
+        this.jobs = Caffeine.newBuilder().expireAfterAccess(jobTtl).build();
+    }
+    
+    public ImportStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId, this::loadJob);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import", "id", jobId);
+        }
+        return job.status();
+    }
+    
+    public ImportStatus importInventory(String jobId, Format format, InputStream input) {
+        String id = jobId != null && !jobId.isBlank() ? jobId : UUID.randomUUID().toString();
+        if (id.length() > MAX_JOB_ID_LENGTH) {
+            throw new BadRequestException("jobId: не довше " + MAX_JOB_ID_LENGTH + " символів");
+        }
+        ImportJob job = jobs.get(id, key -> {
+            ImportJob stored = loadJob(key);
+            return stored != null ? stored : new ImportJob(key, maxErrors);
+        });
+        if (!job.start()) {
+            throw new BadRequestException("Імпорт " + id + " уже виконується");
+        }
+        logger.info("Import {} started ({}), resuming after line {}", id, format, job.checkpoint());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            saveState(job, ImportStatus.State.RUNNING, null);
+            readRows(job, format, reader);
+            finish(job, ImportStatus.State.COMPLETED, null);
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Import {} interrupted at checkpoint {}: {}", id, job.checkpoint(), e.getMessage());
+            finish(job, ImportStatus.State.FAILED, "Завантаження перервано, продовжіть з тим самим jobId");
+        } catch (RuntimeException e) {
+            logger.error("Import {} stopped at checkpoint {}", id, job.checkpoint(), e);
+            finish(job, ImportStatus.State.FAILED, "Імпорт зупинено після рядка " + job.checkpoint()
+                    + " (" + message(e) + "), продовжіть з тим самим jobId");
+            throw e;
+        }
+        ImportStatus status = job.status();
+        logger.info("Import {} {}: {} hotels, {} rooms, {} errors", id, status.getState(),
+                status.getHotelsCreated(), status.getRoomsCreated(), status.getErrorCount());
+        return status;
+    }
+    
+    /** Видалення імпортів, які не змінювалися довше import.job-ttl. */
+    @Scheduled(fixedDelayString = "${import.purge-interval:3600000}",
+               initialDelayString = "${import.purge-interval:3600000}")
+    public void purgeExpiredJobs() {
+        List<String> expired = transactionTemplate.execute(status -> {
+            List<String> ids = importJobRepository.findIdsUpdatedBefore(Instant.now().minus(jobTtl));
+            if (!ids.isEmpty()) {
+                importJobRepository.deleteHotels(ids);
+                importJobRepository.deleteErrors(ids);
+                importJobRepository.deleteAllByIdInBatch(ids);
+            }
+            return ids;
+        });
+        jobs.invalidateAll(expired);
+        logger.debug("Import jobs purged: {}", expired.size());
+    }
+    
+    /** Імпорт, збережений у БД, або null. */
+    private ImportJob loadJob(String id) {
+        return transactionTemplate.execute(status -> importJobRepository.findById(id)
+                .map(state -> ImportJob.restore(state, importJobRepository.findHotels(id),
+                        importJobRepository.findErrors(id), maxErrors))
+                .orElse(null));
+    }
+    
+    /**
+     * Стан і повідомлення імпорту. Рядок import_jobs створюється з поточними лічильниками,
+     * якщо його ще немає; далі лічильники змінює лише recordProgress.
+     */
+    private void saveState(ImportJob job, ImportStatus.State state, String message) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ImportJobState stored = importJobRepository.findById(job.id()).orElse(null);
+            boolean created = stored == null;
+            if (created) {
+                ImportStatus current = job.status();
+                stored = new ImportJobState();
+                stored.setId(job.id());
+                stored.setCheckpoint(current.getCheckpoint());
+                stored.setHotelsCreated(current.getHotelsCreated());
+                stored.setRoomsCreated(current.getRoomsCreated());
+                stored.setErrorCount(current.getErrorCount());
+            }
+            stored.setState(state);
+            stored.setMessage(truncate(message));
+            stored.setUpdatedAt(Instant.now());
+            if (created) {
+                entityManager.persist(stored);
+            }
+        });
+    }
+    
+    private void finish(ImportJob job, ImportStatus.State state, String message) {
+        try {
+            saveState(job, state, message);
+        } catch (RuntimeException e) {
+            // Збережений RUNNING після перезапуску й так читається як перерваний імпорт
+            logger.warn("Import {} state not saved: {}", job.id(), e.getMessage());
+        }
+        job.finish(state, message);
+    }
+    
+    private void readRows(ImportJob job, Format format, BufferedReader reader) throws IOException {
+        long resumeAfter = job.checkpoint();
+        String[] header = null;
+        Chunk chunk = new Chunk();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (format == Format.CSV && header == null) {
+                header = splitCsv(line);
+                continue;
+            }
+            if (lineNumber <= resumeAfter || line.isBlank()) {
+                continue;
+            }
+            try {
+                ImportRow row = parse(format, header, line);
+                validate(job, chunk, row);
+                chunk.rows.add(new NumberedRow(lineNumber, row));
+            } catch (BadRequestException | JsonProcessingException | IllegalArgumentException e) {
+                chunk.errors.add(new ImportStatus.RowError(lineNumber, message(e)));
+            }
+            if (chunk.rows.size() + chunk.errors.size() >= chunkSize) {
+                persist(job, chunk, lineNumber);
+                chunk = new Chunk();
+            }
+        }
+        persist(job, chunk, lineNumber);
+    }
+    
+    private ImportRow parse(Format format, String[] header, String line) throws JsonProcessingException {
+        if (format == Format.NDJSON) {
+            return objectMapper.readValue(line, ImportRow.class);
+        }
+        String[] values = splitCsv(line);
+        if (values.length > header.length) {
+            throw new BadRequestException("Забагато колонок: " + values.length + " замість " + header.length);
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (!values[i].isEmpty()) {
+                fields.put(header[i], values[i]);
+            }
+        }
+        return objectMapper.convertValue(fields, ImportRow.class);
+    }
+    
+    /**
+     * Поля готелю перевіряються лише для нового коду готелю, поля номера - якщо вказано roomNumber.
+     */
+    private void validate(ImportJob job, Chunk chunk, ImportRow row) {
+        String hotelKey = row.getHotelKey();
+        if (hotelKey == null || hotelKey.isBlank()) {
+            throw new BadRequestException("hotelKey: обов'язковий");
+        }
+        if (hotelKey.length() > MAX_HOTEL_KEY_LENGTH) {
+            throw new BadRequestException("hotelKey: не довше " + MAX_HOTEL_KEY_LENGTH + " символів");
+        }
+        boolean newHotel = job.hotelId(hotelKey) == null && !chunk.hotelKeys.contains(hotelKey);
+        if (newHotel) {
+            check(toHotelDto(row));
+        }
+        if (row.getRoomNumber() != null) {
+            check(toRoomDto(row));
+        }
+        chunk.hotelKeys.add(hotelKey);
+    }
+    
+    private void check(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+    
+    private void persist(ImportJob job, Chunk chunk, long lastLine) {
+        try {
+            commitRows(job, chunk.rows, lastLine, chunk.errors);
+            return;
+        } catch (RuntimeException e) {
+            if (chunk.rows.isEmpty() || !isRowError(e)) {
+                throw e;
+            }
+            logger.warn("Import {} chunk ending at line {} failed, retrying row by row: {}", job.id(), lastLine, e.getMessage());
+        }
+        // Кожен рядок комітиться разом з помилками розбору перед ним, тож збій БД посеред
+        // повтору лишає контрольну точку на останньому збереженому рядку
+        int pending = 0;
+        for (NumberedRow row : chunk.rows) {
+            List<ImportStatus.RowError> errors = new ArrayList<>();
+            while (pending < chunk.errors.size() && chunk.errors.get(pending).getLine() < row.line()) {
+                errors.add(chunk.errors.get(pending++));
+            }
+            try {
+                commitRows(job, List.of(row), row.line(), errors);
+            } catch (RuntimeException rowFailure) {
+                if (!isRowError(rowFailure)) {
+                    throw rowFailure;
+                }
+                errors.add(new ImportStatus.RowError(row.line(), message(rowFailure)));
+                commitRows(job, List.of(), row.line(), errors);
+            }
+        }
+        commitRows(job, List.of(), lastLine, chunk.errors.subList(pending, chunk.errors.size()));
+    }
+    
+    /**
+     * Зберігає рядки й прогрес імпорту в одній транзакції; стан у пам'яті зсувається
+     * до line лише після коміту.
+     */
+    private void commitRows(ImportJob job, List<NumberedRow> rows, long line, List<ImportStatus.RowError> errors) {
+        ChunkResult result = transactionTemplate.execute(status -> {
+            ChunkResult saved = rows.isEmpty() ? new ChunkResult(Map.of(), 0) : saveRows(job, rows);
+            recordProgress(job.id(), line, saved, errors);
+            return saved;
+        });
+        job.commit(line, result.hotels(), result.rooms(), errors);
+    }
+    
+    private void recordProgress(String jobId, long line, ChunkResult result, List<ImportStatus.RowError> errors) {
+        ImportJobState state = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Стан імпорту " + jobId + " не знайдено"));
+        result.hotels().forEach((hotelKey, hotelId) -> entityManager.persist(new ImportJobHotel(jobId, hotelKey, hotelId)));
+        long stored = Math.min(state.getErrorCount(), maxErrors);
+        for (ImportStatus.RowError error : errors) {
+            if (stored++ < maxErrors) {
+                entityManager.persist(new ImportJobError(jobId, error.getLine(), truncate(error.getMessage())));
+            }
+        }
+        state.setCheckpoint(line);
+        state.setHotelsCreated(state.getHotelsCreated() + result.hotels().size());
+        state.setRoomsCreated(state.getRoomsCreated() + result.rooms());
+        state.setErrorCount(state.getErrorCount() + errors.size());
+        state.setUpdatedAt(Instant.now());
+    }
+    
+    /**
+     * Помилка даних рядка: порушення обмежень, недопустиме значення або перевірка.
+     * Решта збоїв (недоступна БД, тайм-аут пулу з'єднань) не стосується конкретного рядка
+     * й зупиняє імпорт без зсуву контрольної точки.
+     */
+    static boolean isRowError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof BadRequestException || cause instanceof DataIntegrityViolationException
+                    || cause instanceof jakarta.validation.ConstraintViolationException) {
+                return true;
+            }
+            // Клас SQLSTATE 22 - помилки даних, 23 - порушення обмежень цілісності
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("22") || sql.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Збереження рядків в одній транзакції. Кеш каталогу, матриця зайнятості
+     * й індекс підказок оновлюються лише після коміту.
+     */
+    private ChunkResult saveRows(ImportJob job, List<NumberedRow> rows) {
+        Map<String, Hotel> hotels = new HashMap<>();
+        Map<String, Long> created = new HashMap<>();
+        List<Room> rooms = new ArrayList<>();
+        for (NumberedRow numbered : rows) {
+            ImportRow row = numbered.row();
+            String hotelKey = row.getHotelKey();
+            Hotel hotel = hotels.computeIfAbsent(hotelKey, key -> findHotel(job, key));
+            if (hotel == null) {
+                if (row.getHotelName() == null) {
+                    throw new BadRequestException("Готель " + hotelKey + " не імпортовано");
+                }
+                hotel = hotelRepository.save(newHotel(row));
+                hotels.put(hotelKey, hotel);
+                created.put(hotelKey, hotel.getId());
+            }
+            if (row.getRoomNumber() != null) {
+                rooms.add(newRoom(row, hotel));
+            }
+        }
+        roomRepository.saveAll(rooms);
+        entityManager.flush();
+        
+        hotels.values().forEach(hotel -> catalogCaches.evictHotel(hotel.getId(), List.of()));
+        List<RoomSnapshot> snapshots = rooms.stream()
+                .map(room -> new RoomSnapshot(room.getId(), room.getHotel().getCity(), room.getType(),
+                        room.getCapacity(), room.getAvailable()))
+                .collect(Collectors.toList());
+        List<Long> hotelIds = hotels.values().stream().map(Hotel::getId).collect(Collectors.toList());
+        TransactionHooks.afterCommit(() -> {
+            snapshots.forEach(room -> occupancyMatrix.putRoom(
+                    room.id(), room.city(), room.type(), room.capacity(), room.available()));
+            searchIndex.refresh(hotelIds);
+        });
+        entityManager.clear();
+        return new ChunkResult(created, rooms.size());
+    }
+    
+    private Hotel findHotel(ImportJob job, String hotelKey) {
+        Long hotelId = job.hotelId(hotelKey);
+        return hotelId != null ? hotelRepository.findById(hotelId).orElse(null) : null;
+    }
+    
+    private static Hotel newHotel(ImportRow row) {
+        Hotel hotel = new Hotel();
+        hotel.setName(row.getHotelName());
+        hotel.setAddress(row.getAddress());
+        hotel.setCity(row.getCity());
+        hotel.setStars(row.getStars());
+        hotel.setDescription(row.getHotelDescription());
+        return hotel;
+    }
+    
+    private static Room newRoom(ImportRow row, Hotel hotel) {
+        Room room = new Room();
+        room.setRoomNumber(row.getRoomNumber());
+        room.setType(row.getType());
+        room.setPricePerNight(row.getPricePerNight());
+        room.setCapacity(row.getCapacity());
+        room.setDescription(row.getRoomDescription());
+        room.setAvailable(row.getAvailable() != null ? row.getAvailable() : true);
+        room.setHotel(hotel);
+        return room;
+    }
+    
+    private static HotelDto toHotelDto(ImportRow row) {
+        HotelDto dto = new HotelDto();
+        dto.setName(row.getHotelName());
+        dto.setAddress(row.getAddress());
+        dto.setCity(row.getCity());
+        dto.setStars(row.getStars());
+        dto.setDescription(row.getHotelDescription());
+        return dto;
+    }
+    
+    private static RoomDto toRoomDto(ImportRow row) {
+        RoomDto dto = new RoomDto();
+        dto.setRoomNumber(row.getRoomNumber());
+        dto.setType(row.getType());
+        dto.setPricePerNight(row.getPricePerNight());
+        dto.setCapacity(row.getCapacity());
+        dto.setDescription(row.getRoomDescription());
+        dto.setAvailable(row.getAvailable());
+        return dto;
+    }
+    
+    /** Розбір рядка CSV: кома як роздільник, лапки з подвоєнням для екранування. */
+    static String[] splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values.toArray(new String[0]);
+    }
+    
+    private static String message(Exception e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            if (cause instanceof JsonProcessingException json) {
+                return json.getOriginalMessage();
+            }
+            cause = cause.getCause();
+        }
+        if (cause instanceof JsonProcessingException json) {
+            return json.getOriginalMessage();
+        }
+        // Повідомлення драйвера БД містять SQL - лишаємо лише перший рядок
+        String message = String.valueOf(cause.getMessage());
+        int end = message.indexOf('\n');
+        return end > 0 ? message.substring(0, end) : message;
+    }
+    
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+    
+    private record NumberedRow(long line, ImportRow row) {
+    }
+    
+    private record ChunkResult(Map<String, Long> hotels, int rooms) {
+    }
+    
+    private record RoomSnapshot(Long id, String city, Room.RoomType type, Integer capacity, Boolean available) {
+    }
+    
+    private static final class Chunk {
+        private final List<NumberedRow> rows = new ArrayList<>();
+        private final List<ImportStatus.RowError> errors = new ArrayList<>();
+        private final Set<String> hotelKeys = new HashSet<>();
+    }
+}
@@ -0,0 +1,308 @@
+package com.hotel.service;
+
+import com.hotel.entity.Room;
+import com.hotel.repository.BookingInterval;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.RoomAttributes;
+import com.hotel.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Колонкова матриця зайнятості номерів.
+ * Кожен день горизонту — окремий стовпець-бітсет, де біт номера встановлено, якщо номер зайнятий.
+ * Пошук вільних номерів — побітове AND по стовпцях запитаних днів, без запитів до БД.
+ * Бронювання займає дні від заїзду до виїзду включно — так само, як при перевірці конфліктів.
+ */
+@Component
+public class OccupancyMatrix {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyMatrix.class);
+    private static final int INITIAL_ROOMS = 1024;
+    
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final int horizonDays;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Слоти номерів (індекс біта у стовпцях)
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+    private long[] roomIds = new long[INITIAL_ROOMS];
+    private int[] capacities = new int[INITIAL_ROOMS];
+    private String[] cities = new String[INITIAL_ROOMS];
+    private Room.RoomType[] types = new Room.RoomType[INITIAL_ROOMS];
+    
+    // Маски атрибутів
+    private long[] bookable = new long[words(INITIAL_ROOMS)];
+    private final Map<String, long[]> cityMasks = new HashMap<>();
+    private final Map<Room.RoomType, long[]> typeMasks = new EnumMap<>(Room.RoomType.class);
+    
+    // Стовпці днів у кільцевому буфері: день d зберігається у columns[d % horizonDays]
+    private long[][] columns;
+    private volatile long firstDay;
+    
+    public OccupancyMatrix(RoomRepository roomRepository, BookingRepository bookingRepository,
+                           @Value("${booking.occupancy.horizon-days:365}") int horizonDays) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.horizonDays = horizonDays;
+        for (Room.RoomType type : Room.RoomType.values()) {
+            typeMasks.put(type, new long[bookable.length]);
+        }
+    }
+    
+    @PostConstruct
+    void load() {
+        lock.writeLock().lock();
+        try {
+            firstDay = LocalDate.now().toEpochDay();
+            columns = new long[horizonDays][bookable.length];
+            List<RoomAttributes> rooms = roomRepository.findAllAttributes();
+            rooms.forEach(this::putRoomLocked);
+            bookingRepository.findActiveIntervals().forEach(this::occupyLocked);
+            logger.info("Occupancy matrix loaded: {} rooms x {} days", rooms.size(), horizonDays);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public LocalDate horizonEnd() {
+        return LocalDate.ofEpochDay(firstDay + horizonDays - 1);
+    }
+    
+    /**
+     * Пошук вільних номерів на всі дні від заїзду до виїзду включно.
+     * Повертає id номерів у порядку слотів, не більше limit.
+     */
+    public List<Long> findFree(String city, Room.RoomType type, Integer minCapacity,
+                               LocalDate checkIn, LocalDate checkOut, int limit) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            long from = checkIn.toEpochDay();
+            long to = checkOut.toEpochDay();
+            if (from < firstDay || to >= firstDay + horizonDays) {
+                throw new IllegalArgumentException("Dates outside of occupancy horizon");
+            }
+            long[] candidates = bookable.clone();
+            if (city != null) {
+                long[] mask = cityMasks.get(cityKey(city));
+                if (mask == null) {
+                    return List.of();
+                }
+                and(candidates, mask);
+            }
+            if (type != null) {
+                and(candidates, typeMasks.get(type));
+            }
+            for (long day = from; day <= to; day++) {
+                long[] column = column(day);
+                for (int w = 0; w < candidates.length; w++) {
+                    candidates[w] &= ~column[w];
+                }
+            }
+            List<Long> result = new ArrayList<>();
+            for (int w = 0; w < candidates.length && result.size() < limit; w++) {
+                long word = candidates[w];
+                while (word != 0 && result.size() < limit) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (minCapacity == null || capacities[slot] >= minCapacity) {
+                        result.add(roomIds[slot]);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void occupy(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        update(roomId, checkIn, checkOut, true);
+    }
+    
+    public void release(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        update(roomId, checkIn, checkOut, false);
+    }
+    
+    public void putRoom(Long roomId, String city, Room.RoomType type, Integer capacity, Boolean available) {
+        ensureCurrent();
+        lock.writeLock().lock();
+        try {
+            putRoomLocked(new RoomAttributes(roomId, city, type, capacity, available));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void removeRoom(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(roomId);
+            if (slot == null) {
+                return;
+            }
+            clearAttributes(slot);
+            for (long[] column : columns) {
+                clearBit(column, slot);
+            }
+            freeSlots.push(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void update(Long roomId, LocalDate checkIn, LocalDate checkOut, boolean occupied) {
+        ensureCurrent();
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(roomId);
+            if (slot == null) {
+                return;
+            }
+            long from = Math.max(checkIn.toEpochDay(), firstDay);
+            long to = Math.min(checkOut.toEpochDay(), firstDay + horizonDays - 1);
+            for (long day = from; day <= to; day++) {
+                if (occupied) {
+                    setBit(column(day), slot);
+                } else {
+                    clearBit(column(day), slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Зсув горизонту на поточну дату: минулі стовпці очищаються й стають новими днями,
+     * які заповнюються бронюваннями з БД.
+     */
+    private void ensureCurrent() {
+        long today = LocalDate.now().toEpochDay();
+        if (today <= firstDay) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (today <= firstDay) {
+                return;
+            }
+            long expired = Math.min(today - firstDay, horizonDays);
+            for (long day = firstDay; day < firstDay + expired; day++) {
+                Arrays.fill(column(day), 0L);
+            }
+            long newDaysFrom = Math.max(firstDay + horizonDays, today);
+            firstDay = today;
+            bookingRepository.findActiveIntervalsBetween(LocalDate.ofEpochDay(newDaysFrom), horizonEnd())
+                    .forEach(this::occupyLocked);
+            logger.info("Occupancy horizon moved to {}", LocalDate.ofEpochDay(today));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void occupyLocked(BookingInterval interval) {
+        Integer slot = slots.get(interval.roomId());
+        if (slot == null) {
+            return;
+        }
+        long from = Math.max(interval.checkInDate().toEpochDay(), firstDay);
+        long to = Math.min(interval.checkOutDate().toEpochDay(), firstDay + horizonDays - 1);
+        for (long day = from; day <= to; day++) {
+            setBit(column(day), slot);
+        }
+    }
+    
+    private void putRoomLocked(RoomAttributes room) {
+        Integer slot = slots.get(room.roomId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            ensureCapacity(slotCount);
+            slots.put(room.roomId(), slot);
+        } else {
+            clearAttributes(slot);
+        }
+        String city = cityKey(room.city());
+        roomIds[slot] = room.roomId();
+        capacities[slot] = room.capacity();
+        cities[slot] = city;
+        types[slot] = room.type();
+        setBit(cityMasks.computeIfAbsent(city, c -> new long[bookable.length]), slot);
+        setBit(typeMasks.get(room.type()), slot);
+        if (Boolean.TRUE.equals(room.available())) {
+            setBit(bookable, slot);
+        }
+    }
+    
+    private void clearAttributes(int slot) {
+        clearBit(bookable, slot);
+        clearBit(typeMasks.get(types[slot]), slot);
+        long[] cityMask = cityMasks.get(cities[slot]);
+        if (cityMask != null) {
+            clearBit(cityMask, slot);
+        }
+    }
+    
+    private void ensureCapacity(int rooms) {
+        if (rooms <= roomIds.length) {
+            return;
+        }
+        int size = Math.max(rooms, roomIds.length * 2);
+        int words = words(size);
+        roomIds = Arrays.copyOf(roomIds, size);
+        capacities = Arrays.copyOf(capacities, size);
+        cities = Arrays.copyOf(cities, size);
+        types = Arrays.copyOf(types, size);
+        bookable = Arrays.copyOf(bookable, words);
+        cityMasks.replaceAll((city, mask) -> Arrays.copyOf(mask, words));
+        typeMasks.replaceAll((type, mask) -> Arrays.copyOf(mask, words));
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Arrays.copyOf(columns[i], words);
+        }
+    }
+    
+    private long[] column(long epochDay) {
+        return columns[(int) Math.floorMod(epochDay, (long) horizonDays)];
+    }
+    
+    private static String cityKey(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+    
+    private static void and(long[] target, long[] mask) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= mask[w];
+        }
+    }
+    
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+    
+    private static void clearBit(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+}
@@ -0,0 +1,178 @@
+package com.hotel.service;
+
+import com.hotel.repository.BookingInterval;
+import com.hotel.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory індекс зайнятості номерів.
+ * Для кожного номера зберігає активні бронювання, відсортовані за датою заїзду,
+ * тому перевірка конфлікту виконується за O(log n) без запиту до БД.
+ * Межі інтервалів включні — так само, як у BookingRepository.findConflictingBookings.
+ * Перевірка й резервування виконуються атомарно під блокуванням номера,
+ * тому бронювання різних номерів не блокують одне одного.
+ */
+@Component
+public class RoomAvailabilityIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+    
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    
+    public RoomAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${booking.availability-index.enabled:true}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+    }
+    
+    @PostConstruct
+    void load() {
+        if (!enabled) {
+            logger.info("Room availability index disabled, conflicts are checked in the database");
+            return;
+        }
+        List<BookingInterval> intervals = bookingRepository.findActiveIntervals();
+        for (BookingInterval interval : intervals) {
+            Reservation stay = tryReserve(interval.roomId(), interval.checkInDate(), interval.checkOutDate());
+            if (stay != null) {
+                stay.bind(interval.bookingId());
+            } else {
+                logger.warn("Booking {} overlaps another booking in room {}, skipped in availability index",
+                        interval.bookingId(), interval.roomId());
+            }
+        }
+        logger.info("Room availability index loaded: {} bookings in {} rooms", intervals.size(), calendars.size());
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public boolean hasConflict(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar != null && calendar.overlaps(checkIn, checkOut);
+    }
+    
+    /**
+     * Атомарно перевіряє конфлікт і займає інтервал до збереження бронювання.
+     * Повертає null, якщо номер уже заброньований на ці дати.
+     */
+    public Reservation tryReserve(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        Reservation reservation = new Reservation(roomId, checkIn, checkOut);
+        return calendar(roomId).add(checkIn, reservation) ? reservation : null;
+    }
+    
+    public void release(Reservation reservation) {
+        RoomCalendar calendar = calendars.get(reservation.roomId);
+        if (calendar != null) {
+            calendar.remove(reservation);
+        }
+    }
+    
+    public void remove(Long bookingId, Long roomId, LocalDate checkIn) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            calendar.remove(bookingId, checkIn);
+        }
+    }
+    
+    public void removeRoom(Long roomId) {
+        calendars.remove(roomId);
+    }
+    
+    private RoomCalendar calendar(Long roomId) {
+        return calendars.computeIfAbsent(roomId, id -> new RoomCalendar());
+    }
+    
+    /** Зайнятий інтервал номера; id бронювання прив'язується після збереження. */
+    public static final class Reservation {
+        
+        private final Long roomId;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+        private volatile Long bookingId;
+        
+        private Reservation(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+            this.roomId = roomId;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+        
+        public void bind(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+    }
+    
+    /**
+     * Календар одного номера: інтервали не перетинаються,
+     * тому достатньо перевірити найближче бронювання з заїздом не пізніше нового виїзду.
+     * ReentrantLock замість synchronized: на Java 21 віртуальний потік, що чекає на зайнятий
+     * монітор, блокує свій потік-носій, а очікування на ReentrantLock його звільняє.
+     */
+    private static final class RoomCalendar {
+        
+        private final TreeMap<LocalDate, Reservation> stays = new TreeMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        boolean overlaps(LocalDate checkIn, LocalDate checkOut) {
+            lock.lock();
+            try {
+                return overlapsLocked(checkIn, checkOut);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        boolean add(LocalDate checkIn, Reservation stay) {
+            lock.lock();
+            try {
+                if (overlapsLocked(checkIn, stay.checkOut)) {
+                    return false;
+                }
+                stays.put(checkIn, stay);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void remove(Long bookingId, LocalDate checkIn) {
+            lock.lock();
+            try {
+                Reservation stay = stays.get(checkIn);
+                if (stay != null && bookingId.equals(stay.bookingId)) {
+                    stays.remove(checkIn);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void remove(Reservation reservation) {
+            lock.lock();
+            try {
+                stays.remove(reservation.checkIn, reservation);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private boolean overlapsLocked(LocalDate checkIn, LocalDate checkOut) {
+            Map.Entry<LocalDate, Reservation> floor = stays.floorEntry(checkOut);
+            return floor != null && !floor.getValue().checkOut.isBefore(checkIn);
+        }
+    }
+}
@@ -1,32 +1,55 @@
 package com.hotel.service;
 
+import com.hotel.cache.CatalogCaches;
 import com.hotel.dto.RoomDto;
 import com.hotel.entity.Hotel;
 import com.hotel.entity.Room;
+import com.hotel.exception.BadRequestException;
 import com.hotel.exception.ResourceNotFoundException;
 import com.hotel.repository.HotelRepository;
 import com.hotel.repository.RoomRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class RoomService {
     
     private static final Logger logger = LoggerFactory.getLogger(RoomService.class);
+    private static final int STREAM_CLEAR_INTERVAL = 500;
     private final RoomRepository roomRepository;
     private final HotelRepository hotelRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final OccupancyMatrix occupancyMatrix;
+    private final HotelSearchIndex searchIndex;
+    private final EntityManager entityManager;
+    private final CatalogCaches catalogCaches;
     
-    public RoomService(RoomRepository roomRepository, HotelRepository hotelRepository) {
+    public RoomService(RoomRepository roomRepository, HotelRepository hotelRepository,
+                       RoomAvailabilityIndex availabilityIndex, OccupancyMatrix occupancyMatrix,
+                       HotelSearchIndex searchIndex, EntityManager entityManager, CatalogCaches catalogCaches) {
         this.roomRepository = roomRepository;
         this.hotelRepository = hotelRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyMatrix = occupancyMatrix;
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
+        this.catalogCaches = catalogCaches;
     }
     
+    @Cacheable(cacheNames = CatalogCaches.HOTEL_ROOMS, sync = true)
     @Transactional(readOnly = true)
     public List<RoomDto> getRoomsByHotel(Long hotelId) {
         return roomRepository.findByHotelId(hotelId).stream().map(this::toDto).collect(Collectors.toList());
@@ -38,11 +61,56 @@ public class RoomService {
         return roomRepository.findByAvailableTrue().stream().map(this::toDto).collect(Collectors.toList());
     }
     
+    /**
+     * Сторінка доступних номерів після курсора (keyset-пагінація за id).
+     */
+    @Transactional(readOnly = true)
+    public List<RoomDto> getAvailableRoomsPage(Long after, int limit) {
+        return roomRepository.findAvailablePage(after, Limit.of(limit)).stream()
+                .map(this::toDto).collect(Collectors.toList());
+    }
+    
+    /**
+     * Потокове читання доступних номерів; контекст персистентності періодично очищується.
+     */
+    @Transactional(readOnly = true)
+    public void streamAvailableRooms(Consumer<RoomDto> sink) {
+        try (Stream<Room> rooms = roomRepository.streamAvailable()) {
+            Iterator<Room> iterator = rooms.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                sink.accept(toDto(iterator.next()));
+                if (count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
     @Transactional(readOnly = true)
     public List<RoomDto> getAvailableRoomsByHotel(Long hotelId) {
         return roomRepository.findByHotelIdAndAvailableTrue(hotelId).stream().map(this::toDto).collect(Collectors.toList());
     }
     
+    /**
+     * Пошук номерів, вільних на всі дні від заїзду до виїзду, за матрицею зайнятості.
+     */
+    @Transactional(readOnly = true)
+    public List<RoomDto> searchAvailableRooms(String city, LocalDate checkIn, LocalDate checkOut,
+                                              Integer capacity, Room.RoomType type, int limit) {
+        if (!checkOut.isAfter(checkIn)) {
+            throw new BadRequestException("Невірні дати пошуку");
+        }
+        if (checkIn.isBefore(LocalDate.now()) || checkOut.isAfter(occupancyMatrix.horizonEnd())) {
+            throw new BadRequestException("Пошук доступний до " + occupancyMatrix.horizonEnd());
+        }
+        List<Long> ids = occupancyMatrix.findFree(city, type, capacity, checkIn, checkOut, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return roomRepository.findAllWithHotelByIdIn(ids).stream().map(this::toDto).collect(Collectors.toList());
+    }
+    
+    @Cacheable(cacheNames = CatalogCaches.ROOMS, sync = true)
     @Transactional(readOnly = true)
     public RoomDto getRoomById(Long id) {
         return toDto(roomRepository.findById(id)
@@ -63,7 +131,10 @@ public class RoomService {
         room.setAvailable(dto.getAvailable() != null ? dto.getAvailable() : true);
         room.setHotel(hotel);
         
-        return toDto(roomRepository.save(room));
+        room = roomRepository.save(room);
+        registerAfterCommit(room);
+        catalogCaches.evictRoom(room.getId(), hotelId, true);
+        return toDto(room);
     }
     
     public RoomDto updateRoom(Long id, RoomDto dto) {
@@ -75,16 +146,40 @@ public class RoomService {
         room.setCapacity(dto.getCapacity());
         room.setDescription(dto.getDescription());
         if (dto.getAvailable() != null) room.setAvailable(dto.getAvailable());
-        return toDto(roomRepository.save(room));
+        room = roomRepository.saveAndFlush(room);
+        registerAfterCommit(room);
+        catalogCaches.evictRoom(id, room.getHotel().getId(), false);
+        return toDto(room);
     }
     
     public void deleteRoom(Long id) {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Room", "id", id));
         roomRepository.delete(room);
+        Long hotelId = room.getHotel().getId();
+        catalogCaches.evictRoom(id, hotelId, true);
+        TransactionHooks.afterCommit(() -> {
+            availabilityIndex.removeRoom(id);
+            occupancyMatrix.removeRoom(id);
+            searchIndex.refresh(List.of(hotelId));
+        });
+    }
+    
+    /** Опис номера індексується як частина готелю, тож готель переіндексується. */
+    private void registerAfterCommit(Room room) {
+        Long id = room.getId();
+        Long hotelId = room.getHotel().getId();
+        String city = room.getHotel().getCity();
+        Room.RoomType type = room.getType();
+        Integer capacity = room.getCapacity();
+        Boolean available = room.getAvailable();
+        TransactionHooks.afterCommit(() -> {
+            occupancyMatrix.putRoom(id, city, type, capacity, available);
+            searchIndex.refresh(List.of(hotelId));
+        });
     }
     
-    private RoomDto toDto(Room room) {
+    RoomDto toDto(Room room) {
         RoomDto dto = new RoomDto();
         dto.setId(room.getId());
         dto.setRoomNumber(room.getRoomNumber());
@@ -95,6 +190,8 @@ public class RoomService {
         dto.setAvailable(room.getAvailable());
         dto.setHotelId(room.getHotel().getId());
         dto.setHotelName(room.getHotel().getName());
+        dto.setVersion(room.getVersion());
+        dto.setHotelVersion(room.getHotel().getVersion());
         return dto;
     }
 }
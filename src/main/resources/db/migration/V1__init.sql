@@ -0,0 +1,66 @@
+-- Початкова схема; відповідає сутностям com.hotel.entity (перевіряється ddl-auto=validate)
+
+-- Послідовності id: крок дорівнює hotel.id.allocation-size (pooled-оптимізатор)
+create sequence hotels_seq start with 1 increment by 50;
+create sequence rooms_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+create sequence bookings_seq start with 1 increment by 50;
+
+create table hotels (
+    id bigint not null,
+    name varchar(255) not null,
+    address varchar(255) not null,
+    city varchar(255) not null,
+    stars integer not null,
+    description varchar(1000),
+    version bigint,
+    primary key (id)
+);
+
+create table users (
+    id bigint not null,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    email varchar(255) not null,
+    full_name varchar(255) not null,
+    phone varchar(255) not null,
+    role varchar(255) not null check (role in ('USER', 'ADMIN')),
+    tokens_valid_after timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table rooms (
+    id bigint not null,
+    hotel_id bigint not null,
+    room_number varchar(255) not null,
+    type varchar(255) not null check (type in ('STANDARD', 'DELUXE', 'SUITE')),
+    price_per_night numeric(38, 2) not null,
+    capacity integer not null,
+    description varchar(500),
+    available boolean not null,
+    version bigint,
+    primary key (id),
+    constraint fk_rooms_hotel foreign key (hotel_id) references hotels (id)
+);
+
+create table bookings (
+    id bigint not null,
+    user_id bigint not null,
+    room_id bigint not null,
+    check_in_date date not null,
+    check_out_date date not null,
+    total_price numeric(38, 2) not null,
+    status varchar(255) not null check (status in ('CONFIRMED', 'CANCELLED', 'COMPLETED')),
+    primary key (id),
+    constraint fk_bookings_user foreign key (user_id) references users (id),
+    constraint fk_bookings_room foreign key (room_id) references rooms (id)
+);
+
+create index idx_hotels_city_stars on hotels (city, stars);
+create index idx_hotels_stars on hotels (stars);
+create index idx_rooms_hotel_type_price on rooms (hotel_id, type, price_per_night);
+create index idx_bookings_room_status_dates on bookings (room_id, status, check_in_date, check_out_date);
+create index idx_bookings_user on bookings (user_id);
+create index idx_bookings_dates on bookings (check_in_date, check_out_date);
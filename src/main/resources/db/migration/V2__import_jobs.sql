@@ -0,0 +1,31 @@
+-- Стан імпорту інвентарю: контрольна точка, створені готелі й помилки рядків переживають перезапуск
+
+create table import_jobs (
+    id varchar(100) not null,
+    state varchar(255) not null check (state in ('RUNNING', 'COMPLETED', 'FAILED')),
+    message varchar(1000),
+    checkpoint bigint not null,
+    hotels_created bigint not null,
+    rooms_created bigint not null,
+    error_count bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table import_job_hotels (
+    job_id varchar(100) not null,
+    hotel_key varchar(255) not null,
+    hotel_id bigint not null,
+    primary key (job_id, hotel_key),
+    constraint fk_import_job_hotels_job foreign key (job_id) references import_jobs (id)
+);
+
+create table import_job_errors (
+    job_id varchar(100) not null,
+    line_number bigint not null,
+    message varchar(1000) not null,
+    primary key (job_id, line_number),
+    constraint fk_import_job_errors_job foreign key (job_id) references import_jobs (id)
+);
+
+create index idx_import_jobs_updated_at on import_jobs (updated_at);
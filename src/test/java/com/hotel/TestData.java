@@ -0,0 +1,68 @@
+package com.hotel;
+
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Тестові сутності з обов'язковими полями; зберігаються через репозиторії в самих тестах.
+ */
+public final class TestData {
+    
+    private TestData() {
+    }
+    
+    public static Hotel hotel(String name, String city, int stars) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setAddress("Main 1");
+        hotel.setCity(city);
+        hotel.setStars(stars);
+        return hotel;
+    }
+    
+    public static Room room(Hotel hotel, String number, Room.RoomType type, BigDecimal price) {
+        Room room = new Room();
+        room.setHotel(hotel);
+        room.setRoomNumber(number);
+        room.setType(type);
+        room.setPricePerNight(price);
+        room.setCapacity(2);
+        return room;
+    }
+    
+    public static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("-");
+        user.setEmail(username + "@example.com");
+        user.setFullName(username);
+        user.setPhone("0");
+        return user;
+    }
+    
+    public static Booking booking(User user, Room room, LocalDate checkIn, int nights) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setRoom(room);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(nights));
+        booking.setTotalPrice(room.getPricePerNight().multiply(BigDecimal.valueOf(nights)));
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        return booking;
+    }
+    
+    /** Автентифікація поточного потоку, як після перевірки JWT. */
+    public static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
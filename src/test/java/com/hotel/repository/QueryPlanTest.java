@@ -0,0 +1,158 @@
+package com.hotel.repository;
+
+import com.hotel.TestData;
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.service.HotelService;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Плани H2 для запитів, під які на сутностях оголошено індекси: SQL перехоплюється RecordingStatementInspector
+ * і виконується як EXPLAIN. Дані засіюються, щоб вибір індексу залежав від вартості, а не від порожніх таблиць.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.hotel.repository.RecordingStatementInspector")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    
+    private static final String[] CITIES = {"Kyiv", "Lviv", "Odesa", "Kharkiv", "Dnipro"};
+    
+    @Autowired
+    private HotelService hotelService;
+    
+    @Autowired
+    private HotelRepository hotelRepository;
+    
+    @Autowired
+    private RoomRepository roomRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final LocalDate today = LocalDate.now();
+    private List<Room> rooms;
+    
+    @BeforeAll
+    void seed() {
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            hotels.add(TestData.hotel("Hotel " + i, CITIES[i % CITIES.length], 1 + i % 5));
+        }
+        hotels = hotelRepository.saveAll(hotels);
+        rooms = new ArrayList<>();
+        Room.RoomType[] types = Room.RoomType.values();
+        for (int i = 0; i < 500; i++) {
+            rooms.add(TestData.room(hotels.get(i % hotels.size()), String.valueOf(i), types[i % types.length],
+                    BigDecimal.valueOf(50 + i % 10 * 25)));
+        }
+        rooms = roomRepository.saveAll(rooms);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(TestData.user("user" + i));
+        }
+        users = userRepository.saveAll(users);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            bookings.add(TestData.booking(users.get(i % users.size()), rooms.get(i % rooms.size()),
+                    today.plusDays(i / rooms.size() * 7L), 3));
+        }
+        bookingRepository.saveAll(bookings);
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    @Test
+    void hotelSearchUsesCityStarsAndRoomIndexes() {
+        String plan = plan("hotels", () -> hotelService.searchHotels("Kyiv", 4, BigDecimal.valueOf(50),
+                BigDecimal.valueOf(200), Room.RoomType.DELUXE, null, 20));
+        
+        assertThat(plan).contains(index(Hotel.class, "idx_hotels_city_stars"))
+                .contains(index(Room.class, "idx_rooms_hotel_type_price"));
+    }
+    
+    @Test
+    void hotelSearchByCityUsesCityStarsIndex() {
+        String plan = plan("hotels", () -> hotelService.searchHotels("Lviv", null, null, null, null, null, 20));
+        
+        assertThat(plan).contains(index(Hotel.class, "idx_hotels_city_stars"));
+    }
+    
+    @Test
+    void conflictCheckUsesRoomStatusDatesIndex() {
+        String plan = plan("bookings", () ->
+                bookingRepository.findConflictingBookings(rooms.get(0).getId(), today, today.plusDays(3)));
+        
+        assertThat(plan).contains(index(Booking.class, "idx_bookings_room_status_dates"));
+    }
+    
+    @Test
+    void userBookingsJoinUsesUserIndex() {
+        String plan = plan("bookings", () -> bookingRepository.findViewsByUsername("user1"));
+        
+        assertThat(plan).contains(index(Booking.class, "idx_bookings_user"));
+    }
+    
+    @Test
+    void activeIntervalsBetweenUseDatesIndex() {
+        String plan = plan("bookings", () -> bookingRepository.findActiveIntervalsBetween(today, today.plusDays(10)));
+        
+        assertThat(plan).contains(index(Booking.class, "idx_bookings_dates"));
+    }
+    
+    @Test
+    void activeIntervalsForRoomsUseRoomStatusDatesIndex() {
+        String plan = plan("bookings", () -> bookingRepository.findActiveIntervalsForRooms(
+                List.of(rooms.get(0).getId(), rooms.get(1).getId()), today, today.plusDays(10)));
+        
+        assertThat(plan).contains(index(Booking.class, "idx_bookings_room_status_dates"));
+    }
+    
+    /** Усі активні інтервали (завантаження при старті) - повне читання; покривний індекс замість таблиці. */
+    @Test
+    void activeIntervalsAreReadFromCoveringIndex() {
+        String plan = plan("bookings", () -> bookingRepository.findActiveIntervals());
+        
+        assertThat(plan).contains(index(Booking.class, "idx_bookings_room_status_dates"))
+                .doesNotContain("tableScan");
+    }
+    
+    /** План H2 (EXPLAIN) першого запиту action до таблиці; параметри лишаються незв'язаними. */
+    private String plan(String table, Supplier<?> action) {
+        String sql = RecordingStatementInspector.record(action).stream()
+                .filter(statement -> statement.contains(" from " + table + " "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query to " + table));
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                (row, number) -> row.getString(1)).get(0);
+    }
+    
+    /** Ім'я індексу, як його показує EXPLAIN; індекс має бути оголошений на сутності. */
+    private static String index(Class<?> entity, String name) {
+        assertThat(entity.getAnnotation(Table.class).indexes()).extracting(Index::name).contains(name);
+        return "PUBLIC." + name.toUpperCase(Locale.ROOT);
+    }
+}
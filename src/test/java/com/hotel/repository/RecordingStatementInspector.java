@@ -0,0 +1,37 @@
+package com.hotel.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Запам'ятовує SQL, який Hibernate готує в поточному потоці, поки триває record().
+ * Підключається через hibernate.session_factory.statement_inspector.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+    
+    /** SQL усіх запитів, виконаних під час action. */
+    public static List<String> record(Supplier<?> action) {
+        List<String> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        try {
+            action.get();
+        } finally {
+            RECORDED.remove();
+        }
+        return recorded;
+    }
+}
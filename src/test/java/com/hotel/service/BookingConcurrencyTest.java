@@ -0,0 +1,205 @@
+package com.hotel.service;
+
+import com.hotel.TestData;
+import com.hotel.dto.BookingDto;
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.exception.BadRequestException;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Паралельні бронювання: з одночасних запитів на перетинні дати одного номера успішний рівно один,
+ * бронювання різних номерів одне одного не блокують. Підкласи задають режим перевірки конфліктів.
+ * Навантажувальний сценарій запускає STRESS_ROOMS x WINDOWS x CONTENDERS потоків одночасно
+ * в кожному з ROUNDS раундів.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class BookingConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    private static final int STRESS_ROOMS = 40;
+    private static final int WINDOWS = 5;
+    private static final int CONTENDERS = 6;
+    private static final int ROUNDS = 3;
+    private static final int WINDOW_DAYS = 7;
+    private static final String USERNAME = "guest";
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private HotelRepository hotelRepository;
+    
+    @Autowired
+    private RoomRepository roomRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    private Hotel hotel;
+    
+    private record Outcome(BookingDto booking, Exception error) {
+    }
+    
+    @BeforeEach
+    void setUp() {
+        hotel = hotelRepository.save(TestData.hotel("Concurrency", "Kyiv", 4));
+        if (userRepository.findByUsername(USERNAME).isEmpty()) {
+            userRepository.save(TestData.user(USERNAME));
+        }
+    }
+    
+    @Test
+    void onlyOneOfConcurrentOverlappingBookingsSucceeds() throws Exception {
+        Room room = rooms(1).get(0);
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        
+        // Заїзди зсунуті на 0-2 дні при трьох ночах: кожна пара інтервалів перетинається
+        List<Outcome> outcomes = runConcurrently(THREADS, i -> booking(room, checkIn.plusDays(i % 3), 3));
+        
+        assertThat(outcomes).filteredOn(outcome -> outcome.error() == null).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> outcome.error() != null)
+                .hasSize(THREADS - 1)
+                .allSatisfy(BookingConcurrencyTest::assertConflict);
+        assertThat(bookingRepository.findByRoomId(room.getId()))
+                .singleElement()
+                .extracting(Booking::getStatus)
+                .isEqualTo(Booking.BookingStatus.CONFIRMED);
+    }
+    
+    @Test
+    void concurrentBookingsOfDifferentRoomsAllSucceed() throws Exception {
+        List<Room> rooms = rooms(THREADS);
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        
+        List<Outcome> outcomes = runConcurrently(THREADS, i -> booking(rooms.get(i), checkIn, 3));
+        
+        assertThat(outcomes).allSatisfy(outcome -> assertThat(outcome.error()).isNull());
+        for (Room room : rooms) {
+            assertThat(bookingRepository.findByRoomId(room.getId())).hasSize(1);
+        }
+    }
+    
+    @Test
+    void overlappingBookingsUnderLoadConfirmOnePerSet() throws Exception {
+        List<Room> rooms = rooms(STRESS_ROOMS);
+        int sets = STRESS_ROOMS * WINDOWS;
+        LocalDate base = LocalDate.now().plusDays(30);
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            // Набір - номер і тижневе вікно; сусідні потоки належать різним наборам,
+            // учасники одного набору заїжджають із зсувом 0-2 дні на три ночі
+            LocalDate first = base.plusDays((long) round * WINDOWS * WINDOW_DAYS);
+            List<Outcome> outcomes = runConcurrently(sets * CONTENDERS, i -> {
+                int set = i % sets;
+                LocalDate window = first.plusDays((long) (set / STRESS_ROOMS) * WINDOW_DAYS);
+                return booking(rooms.get(set % STRESS_ROOMS), window.plusDays(i / sets % 3), 3);
+            });
+            
+            for (int set = 0; set < sets; set++) {
+                List<Outcome> contenders = new ArrayList<>(CONTENDERS);
+                for (int i = set; i < outcomes.size(); i += sets) {
+                    contenders.add(outcomes.get(i));
+                }
+                assertThat(contenders).as("раунд %d, набір %d", round, set)
+                        .filteredOn(outcome -> outcome.error() == null).hasSize(1);
+            }
+            assertThat(outcomes).filteredOn(outcome -> outcome.error() != null)
+                    .hasSize(sets * (CONTENDERS - 1))
+                    .allSatisfy(BookingConcurrencyTest::assertConflict);
+        }
+        
+        for (Room room : rooms) {
+            List<Booking> bookings = bookingRepository.findByRoomId(room.getId());
+            assertThat(bookings).hasSize(WINDOWS * ROUNDS)
+                    .allSatisfy(booking -> assertThat(booking.getStatus()).isEqualTo(Booking.BookingStatus.CONFIRMED))
+                    .extracting(booking -> ChronoUnit.DAYS.between(base, booking.getCheckInDate()) / WINDOW_DAYS)
+                    .doesNotHaveDuplicates();
+        }
+    }
+    
+    private static void assertConflict(Outcome outcome) {
+        assertThat(outcome.error()).isInstanceOfAny(BadRequestException.class,
+                OptimisticLockingFailureException.class, PessimisticLockingFailureException.class);
+    }
+    
+    private List<Room> rooms(int count) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rooms.add(TestData.room(hotel, String.valueOf(100 + i), Room.RoomType.STANDARD, BigDecimal.valueOf(100)));
+        }
+        return roomRepository.saveAll(rooms);
+    }
+    
+    private static BookingDto booking(Room room, LocalDate checkIn, int nights) {
+        BookingDto dto = new BookingDto();
+        dto.setRoomId(room.getId());
+        dto.setCheckInDate(checkIn);
+        dto.setCheckOutDate(checkIn.plusDays(nights));
+        return dto;
+    }
+    
+    /** Потік на кожен запит; усі стартують разом після спільного бар'єра, i-й бронює requests.apply(i). */
+    private List<Outcome> runConcurrently(int threads, IntFunction<BookingDto> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Outcome>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                BookingDto request = requests.apply(i);
+                futures.add(executor.submit(() -> {
+                    TestData.authenticate(USERNAME);
+                    try {
+                        ready.countDown();
+                        start.await();
+                        return new Outcome(bookingService.createBooking(request), null);
+                    } catch (Exception e) {
+                        return new Outcome(null, e);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            assertThat(ready.await(60, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>(threads);
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.hotel.service;
+
+import com.hotel.TestData;
+import com.hotel.dto.BookingDto;
+import com.hotel.entity.Booking;
+import com.hotel.entity.Hotel;
+import com.hotel.entity.Room;
+import com.hotel.entity.User;
+import com.hotel.repository.BookingRepository;
+import com.hotel.repository.HotelRepository;
+import com.hotel.repository.RoomRepository;
+import com.hotel.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Списки бронювань читаються однією JOIN-проєкцією: один підготовлений запит незалежно від кількості
+ * бронювань, без догрузки користувачів, номерів і готелів (N+1).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryCountTest {
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private HotelRepository hotelRepository;
+    
+    @Autowired
+    private RoomRepository roomRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Hotel hotel;
+    private final List<Long> hotelBookings = new ArrayList<>();
+    private final List<Long> guestBookings = new ArrayList<>();
+    private final List<Long> allBookings = new ArrayList<>();
+    
+    /** Два готелі по три номери, два користувачі; бронювання розкидані по всіх номерах. */
+    @BeforeAll
+    void seed() {
+        hotel = hotelRepository.save(TestData.hotel("Grand", "Kyiv", 5));
+        Hotel other = hotelRepository.save(TestData.hotel("Other", "Lviv", 3));
+        User guest = userRepository.save(TestData.user("guest"));
+        User another = userRepository.save(TestData.user("another"));
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rooms.add(TestData.room(hotel, "1" + i, Room.RoomType.STANDARD, BigDecimal.valueOf(100)));
+            rooms.add(TestData.room(other, "2" + i, Room.RoomType.DELUXE, BigDecimal.valueOf(200)));
+        }
+        roomRepository.saveAll(rooms);
+        
+        List<Booking> bookings = new ArrayList<>();
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        for (int i = 0; i < 12; i++) {
+            Room room = rooms.get(i % rooms.size());
+            bookings.add(TestData.booking(i % 3 == 0 ? another : guest, room, checkIn.plusDays(i * 5L), 2));
+        }
+        for (Booking booking : bookingRepository.saveAll(bookings)) {
+            allBookings.add(booking.getId());
+            if (booking.getUser() == guest) {
+                guestBookings.add(booking.getId());
+            }
+            if (booking.getRoom().getHotel() == hotel) {
+                hotelBookings.add(booking.getId());
+            }
+        }
+    }
+    
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void allBookingsAreReadWithOneStatement() {
+        assertSingleStatement(bookingService::getAllBookings, allBookings);
+    }
+    
+    @Test
+    void myBookingsAreReadWithOneStatement() {
+        TestData.authenticate("guest");
+        assertSingleStatement(bookingService::getMyBookings, guestBookings);
+    }
+    
+    @Test
+    void hotelBookingsAreReadWithOneStatement() {
+        assertSingleStatement(() -> bookingService.getBookingsByHotel(hotel.getId()), hotelBookings);
+    }
+    
+    private void assertSingleStatement(Supplier<List<BookingDto>> query, List<Long> expectedIds) {
+        assertThat(expectedIds).hasSizeGreaterThan(1);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        List<BookingDto> bookings = query.get();
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookings).extracting(BookingDto::getId).containsExactlyElementsOf(expectedIds);
+        assertThat(bookings).allSatisfy(booking -> {
+            assertThat(booking.getUserName()).isNotNull();
+            assertThat(booking.getRoomNumber()).isNotNull();
+            assertThat(booking.getHotelName()).isNotNull();
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package com.hotel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.hotel.dto.ImportStatus;
+import com.hotel.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLTransientConnectionException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Рядковими помилками стають лише помилки даних; збій БД зупиняє імпорт
+ * без зсуву контрольної точки, і повтор з тим самим jobId - також після перезапуску - зберігає всі рядки.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportServiceTest {
+    
+    private static final String HEADER = "hotelKey,hotelName,address,city,stars,hotelDescription,"
+            + "roomNumber,type,pricePerNight,capacity,roomDescription,available\n";
+    
+    @Autowired
+    private ImportService importService;
+    
+    @SpyBean
+    private RoomRepository roomRepository;
+    
+    @Test
+    void databaseFailureStopsImportWithoutAdvancingCheckpoint() {
+        String key = "HK-" + UUID.randomUUID();
+        String csv = HEADER
+                + key + ",Import Hotel,Street 1,Lviv,4,,101,STANDARD,50,1,,\n"
+                + key + ",,,,,,102,DELUXE,70,2,,\n";
+        String jobId = UUID.randomUUID().toString();
+        doThrow(new CannotCreateTransactionException("Connection is not available"))
+                .when(roomRepository).saveAll(any());
+        
+        assertThatThrownBy(() -> importService.importInventory(jobId, ImportService.Format.CSV, csv(csv)))
+                .isInstanceOf(CannotCreateTransactionException.class);
+        reset(roomRepository);
+        ImportStatus failed = importService.getStatus(jobId);
+        assertThat(failed.getState()).isEqualTo(ImportStatus.State.FAILED);
+        assertThat(failed.getCheckpoint()).isZero();
+        assertThat(failed.getErrorCount()).isZero();
+        
+        ImportStatus resumed = importService.importInventory(jobId, ImportService.Format.CSV, csv(csv));
+        assertThat(resumed.getState()).isEqualTo(ImportStatus.State.COMPLETED);
+        assertThat(resumed.getHotelsCreated()).isEqualTo(1);
+        assertThat(resumed.getRoomsCreated()).isEqualTo(2);
+        assertThat(resumed.getErrorCount()).isZero();
+    }
+    
+    @Test
+    void dataErrorsBecomeRowErrors() {
+        String key = "HK-" + UUID.randomUUID();
+        String csv = HEADER
+                + key + ",Import Hotel,Street 1,Odesa,3,,201,STANDARD,40,1,,\n"
+                + "HK-missing,,,,,,202,STANDARD,40,1,,\n"
+                + key + ",,,,,,203,SUITE,120,4,,\n";
+        ImportStatus status = importService.importInventory(null, ImportService.Format.CSV, csv(csv));
+        
+        assertThat(status.getState()).isEqualTo(ImportStatus.State.COMPLETED);
+        assertThat(status.getCheckpoint()).isEqualTo(4);
+        assertThat(status.getRoomsCreated()).isEqualTo(2);
+        assertThat(status.getErrors()).extracting(ImportStatus.RowError::getLine).containsExactly(3L);
+    }
+    
+    @Test
+    void resumeAfterRestartUsesStoredCheckpointAndHotels() {
+        String key = "HK-" + UUID.randomUUID();
+        String head = HEADER + key + ",Import Hotel,Street 1,Kyiv,5,,301,STANDARD,90,2,,\n"
+                + "HK-missing,,,,,,302,STANDARD,90,2,,\n";
+        String jobId = UUID.randomUUID().toString();
+        importService.importInventory(jobId, ImportService.Format.CSV, csv(head));
+        // Перезапуск: стан імпорту в пам'яті втрачено
+        ((Cache<?, ?>) ReflectionTestUtils.getField(importService, "jobs")).invalidateAll();
+        
+        ImportStatus stored = importService.getStatus(jobId);
+        assertThat(stored.getCheckpoint()).isEqualTo(3);
+        assertThat(stored.getErrors()).extracting(ImportStatus.RowError::getLine).containsExactly(3L);
+        
+        ImportStatus resumed = importService.importInventory(jobId, ImportService.Format.CSV,
+                csv(head + key + ",,,,,,303,SUITE,200,4,,\n"));
+        assertThat(resumed.getState()).isEqualTo(ImportStatus.State.COMPLETED);
+        assertThat(resumed.getCheckpoint()).isEqualTo(4);
+        assertThat(resumed.getHotelsCreated()).isEqualTo(1);
+        assertThat(resumed.getRoomsCreated()).isEqualTo(2);
+        assertThat(resumed.getErrorCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void onlyDataErrorsAreRowErrors() {
+        assertThat(ImportService.isRowError(new DataIntegrityViolationException("duplicate"))).isTrue();
+        assertThat(ImportService.isRowError(new CannotCreateTransactionException("down",
+                new SQLTransientConnectionException("Connection is not available", "08001")))).isFalse();
+    }
+    
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
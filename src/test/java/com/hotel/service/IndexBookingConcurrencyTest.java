@@ -0,0 +1,8 @@
+package com.hotel.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Конфлікти перевіряє in-memory індекс: дати резервуються атомарно до вставки. */
+@SpringBootTest(properties = "booking.availability-index.enabled=true")
+class IndexBookingConcurrencyTest extends BookingConcurrencyTest {
+}
@@ -0,0 +1,8 @@
+package com.hotel.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Без індексу: версія номера збільшується при коміті, другий коміт отримує конфлікт версій. */
+@SpringBootTest(properties = {"booking.availability-index.enabled=false", "booking.room-lock=optimistic"})
+class OptimisticBookingConcurrencyTest extends BookingConcurrencyTest {
+}
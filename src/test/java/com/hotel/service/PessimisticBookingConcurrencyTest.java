@@ -0,0 +1,8 @@
+package com.hotel.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Без індексу: рядок номера блокується SELECT ... FOR UPDATE до кінця транзакції. */
+@SpringBootTest(properties = {"booking.availability-index.enabled=false", "booking.room-lock=pessimistic"})
+class PessimisticBookingConcurrencyTest extends BookingConcurrencyTest {
+}